@@ -0,0 +1,65 @@
+// Writes .br and .gz siblings next to the text assets in target/classes/static so the resource
+// chain (EncodedResourceResolver) can serve them without compressing on every request.
+// Runs in process-resources via gmavenplus; bound variables: project, log.
+import com.aayushatharva.brotli4j.Brotli4jLoader
+import com.aayushatharva.brotli4j.encoder.Encoder
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.zip.Deflater
+import java.util.zip.GZIPOutputStream
+
+def extensions = ['css', 'js', 'svg', 'html', 'json', 'txt']
+// Below this size the compressed body plus Content-Encoding/Vary headers is not worth it
+def minSize = 1024
+
+Path root = Paths.get(project.build.outputDirectory, 'static')
+if (!Files.isDirectory(root)) {
+    return
+}
+
+boolean brotli = true
+try {
+    Brotli4jLoader.ensureAvailability()
+} catch (Throwable e) {
+    log.warn("Brotli unavailable on this platform, writing gzip variants only: ${e.message}")
+    brotli = false
+}
+def brotliParams = new Encoder.Parameters().setQuality(11)
+
+int written = 0
+Files.walk(root).withCloseable { paths ->
+    paths.filter { Files.isRegularFile(it) }
+        .filter { extensions.contains(it.fileName.toString().tokenize('.').last()) }
+        .filter { Files.size(it) >= minSize }
+        .each { Path file ->
+            byte[] content = Files.readAllBytes(file)
+
+            def gzipped = new ByteArrayOutputStream()
+            new MaxGzipOutputStream(gzipped).withCloseable { it.write(content) }
+            written += writeIfSmaller(file, '.gz', gzipped.toByteArray(), content.length)
+
+            if (brotli) {
+                written += writeIfSmaller(file, '.br', Encoder.compress(content, brotliParams), content.length)
+            }
+        }
+}
+log.info("Precompressed static assets: ${written} variants written under ${root}")
+
+int writeIfSmaller(Path file, String suffix, byte[] compressed, int originalSize) {
+    Path target = file.resolveSibling(file.fileName.toString() + suffix)
+    if (compressed.length >= originalSize) {
+        Files.deleteIfExists(target)
+        return 0
+    }
+    Files.write(target, compressed)
+    return 1
+}
+
+class MaxGzipOutputStream extends GZIPOutputStream {
+    MaxGzipOutputStream(OutputStream out) {
+        super(out)
+        this.@'def'.setLevel(Deflater.BEST_COMPRESSION)
+    }
+}
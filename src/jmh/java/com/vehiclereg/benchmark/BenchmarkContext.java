@@ -0,0 +1,96 @@
+package com.vehiclereg.benchmark;
+
+import com.vehiclereg.VehicleRegistrationApplication;
+import com.vehiclereg.service.CacheManagementService;
+import com.vehiclereg.service.PersonSearchIndex;
+import com.vehiclereg.service.VehicleStatisticsStore;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the application against a private in-memory H2 database and seeds it with
+// a reproducible data set: one vehicle and two phones per person.
+final class BenchmarkContext {
+
+    private static final String[] BRANDS = {"Toyota", "Ford", "BMW", "Audi", "Skoda", "Opel", "Suzuki", "Renault"};
+    private static final String[] COLORS = {"white", "black", "silver", "red", "blue", "grey"};
+    private static final String[] FIRST_NAMES = {"John", "Anna", "Peter", "Eva", "Tom", "Viola", "Steve", "Maria", "Laszlo", "Kata"};
+    private static final String[] LAST_NAMES = {"Smith", "Grey", "Grant", "Roberts", "Nagy", "Kovacs", "Toth", "Szabo", "Horvath", "Anderson"};
+    private static final int BATCH_SIZE = 1000;
+
+    private BenchmarkContext() {
+    }
+
+    // Extra arguments (e.g. "--spring.thymeleaf.cache=true") override the defaults below
+    static ConfigurableApplicationContext start(int rows, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.show-sql=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN",
+            "--logging.level.com.vehiclereg=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        for (String arg : args) {
+            String key = arg.substring(0, arg.indexOf('=') + 1);
+            arguments.removeIf(defaultArg -> !key.isEmpty() && defaultArg.startsWith(key));
+            arguments.add(arg);
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(VehicleRegistrationApplication.class)
+            .profiles("dev")
+            // passed as arguments so they take precedence over application-dev.properties
+            .run(arguments.toArray(String[]::new));
+
+        seed(context.getBean(JdbcTemplate.class), rows);
+        context.getBean(VehicleStatisticsStore.class).rebuild();
+        context.getBean(PersonSearchIndex.class).rebuild();
+        context.getBean(CacheManagementService.class).clearAll();
+        return context;
+    }
+
+    static String regnumber(int index) {
+        return String.format("%06d", index);
+    }
+
+    static String name(int index) {
+        return FIRST_NAMES[index % FIRST_NAMES.length] + " "
+            + LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length] + " " + index;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        List<Object[]> persons = new ArrayList<>();
+        List<Object[]> vehicles = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            String regnumber = regnumber(i);
+            persons.add(new Object[] {name(i), regnumber, 150 + i % 50});
+            vehicles.add(new Object[] {regnumber, BRANDS[i % BRANDS.length], COLORS[i % COLORS.length]});
+            if (persons.size() == BATCH_SIZE) {
+                insertPersonsAndVehicles(jdbcTemplate, persons, vehicles);
+            }
+        }
+        insertPersonsAndVehicles(jdbcTemplate, persons, vehicles);
+
+        List<Object[]> phones = new ArrayList<>();
+        List<Long> personIds = jdbcTemplate.queryForList("SELECT id FROM persons ORDER BY id", Long.class);
+        for (Long personId : personIds) {
+            phones.add(new Object[] {personId, "+36 20 " + personId});
+            phones.add(new Object[] {personId, "+36 30 " + personId});
+            if (phones.size() >= BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("INSERT INTO phones (personid, number) VALUES (?, ?)", phones);
+                phones.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO phones (personid, number) VALUES (?, ?)", phones);
+    }
+
+    private static void insertPersonsAndVehicles(JdbcTemplate jdbcTemplate, List<Object[]> persons, List<Object[]> vehicles) {
+        jdbcTemplate.batchUpdate("INSERT INTO persons (name, regnumber, height) VALUES (?, ?, ?)", persons);
+        jdbcTemplate.batchUpdate("INSERT INTO vehicles (regnum, brand, color) VALUES (?, ?, ?)", vehicles);
+        persons.clear();
+        vehicles.clear();
+    }
+}
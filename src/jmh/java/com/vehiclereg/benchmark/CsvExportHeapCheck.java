@@ -0,0 +1,127 @@
+package com.vehiclereg.benchmark;
+
+import com.vehiclereg.service.CsvExportService;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Checks that the CSV exports stream in constant memory, which JMH cannot report: seeds the benchmark
+// database with `rows` persons (one vehicle and two phones each), then runs every export into a
+// discarding stream while sampling the heap. The database is an H2 file under target/, so the table
+// data is not on the heap being measured. Heap in use before the export is measured after a full GC;
+// the peaks are the highest total heap seen by the sampler and the highest old generation occupancy,
+// which only grows if rows outlive the young collections. Run with:
+// mvn -Pbenchmark compile exec:exec -Dbenchmark.main=com.vehiclereg.benchmark.CsvExportHeapCheck -Djmh.args=1000000
+public final class CsvExportHeapCheck {
+
+    private static final long MB = 1024 * 1024;
+    private static final long SAMPLE_INTERVAL_MILLIS = 5;
+    private static final Path DATABASE = Path.of("target", "csv-export-heap-check");
+
+    private CsvExportHeapCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        deleteDatabase();
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(rows,
+                "--spring.datasource.url=jdbc:h2:file:" + DATABASE.toAbsolutePath())) {
+            CsvExportService csvExportService = context.getBean(CsvExportService.class);
+            System.out.printf("rows=%d max heap=%d MB%n", rows, Runtime.getRuntime().maxMemory() / MB);
+            System.out.printf("%-9s %12s %9s %15s %15s %15s%n",
+                "export", "bytes", "millis", "heap before MB", "peak heap MB", "peak old gen MB");
+            run("persons", csvExportService::writePersons);
+            run("vehicles", csvExportService::writeVehicles);
+            run("phones", csvExportService::writePhones);
+        } finally {
+            deleteDatabase();
+        }
+    }
+
+    private static void deleteDatabase() throws IOException {
+        Files.deleteIfExists(Path.of(DATABASE + ".mv.db"));
+        Files.deleteIfExists(Path.of(DATABASE + ".trace.db"));
+    }
+
+    private static void run(String name, Export export) throws Exception {
+        System.gc();
+        long before = usedHeap();
+        List<MemoryPoolMXBean> oldGen = oldGenPools();
+        oldGen.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        HeapSampler sampler = new HeapSampler();
+        sampler.start();
+        CountingOutputStream out = new CountingOutputStream();
+        long start = System.nanoTime();
+        try {
+            export.write(out);
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long peakOldGen = oldGen.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        System.out.printf("%-9s %12d %9d %15d %15d %15d%n",
+            name, out.count, millis, before / MB, Math.max(sampler.peak, usedHeap()) / MB, peakOldGen / MB);
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static List<MemoryPoolMXBean> oldGenPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .filter(pool -> pool.getName().contains("Old Gen") || pool.getName().contains("Tenured"))
+            .toList();
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static final class HeapSampler extends Thread {
+
+        private volatile long peak;
+
+        HeapSampler() {
+            super("heap-sampler");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                peak = Math.max(peak, usedHeap());
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.vehiclereg.benchmark;
+
+import com.vehiclereg.controller.ApiController;
+import com.vehiclereg.controller.DatabaseController;
+import com.vehiclereg.controller.VehicleController;
+import com.vehiclereg.repository.VehicleRepository;
+import com.vehiclereg.service.CacheManagementService;
+import com.vehiclereg.service.CsvExportService;
+import com.vehiclereg.service.DashboardStatsService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn -Pbenchmark compile exec:exec
+// Pass JMH options through -Djmh.args, e.g. -Djmh.args="-p rows=50000 -rf json -rff baseline.json"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotPathBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    // false clears the application and second-level caches before every invocation
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private ConfigurableApplicationContext context;
+    private VehicleController vehicleController;
+    private DatabaseController databaseController;
+    private ApiController apiController;
+    private VehicleRepository vehicleRepository;
+    private CsvExportService csvExportService;
+    private DashboardStatsService dashboardStatsService;
+    private CacheManagementService cacheManagementService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start(rows);
+        vehicleController = context.getBean(VehicleController.class);
+        databaseController = context.getBean(DatabaseController.class);
+        apiController = context.getBean(ApiController.class);
+        vehicleRepository = context.getBean(VehicleRepository.class);
+        csvExportService = context.getBean(CsvExportService.class);
+        dashboardStatsService = context.getBean(DashboardStatsService.class);
+        cacheManagementService = context.getBean(CacheManagementService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetCaches() {
+        if (!cached) {
+            cacheManagementService.clearAll();
+        }
+        // The API builds its Link header from the current request, so bind one on the benchmark thread
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/persons")));
+    }
+
+    @TearDown(Level.Invocation)
+    public void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object vehiclesPage() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        vehicleController.vehicles(model);
+        return model;
+    }
+
+    @Benchmark
+    public Object databasePage() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        databaseController.database(model);
+        return model;
+    }
+
+    @Benchmark
+    public Object apiListPersons() {
+        return apiController.getAllPersons(null, null, unconditional());
+    }
+
+    @Benchmark
+    public Object apiPersonsPage() {
+        return apiController.getAllPersons(100, null, unconditional());
+    }
+
+    @Benchmark
+    public Object apiListVehicles() {
+        return apiController.getAllVehicles(null, null, unconditional());
+    }
+
+    @Benchmark
+    public Object apiGetVehicle() {
+        return apiController.getVehicleByRegnum(BenchmarkContext.regnumber(ThreadLocalRandom.current().nextInt(rows)), unconditional());
+    }
+
+    @Benchmark
+    public void statsByBrandAndColor(Blackhole blackhole) {
+        blackhole.consume(apiController.getVehiclesByBrand(unconditional()));
+        blackhole.consume(apiController.getVehiclesByColor(unconditional()));
+    }
+
+    @Benchmark
+    public Object statsGroupByQuery() {
+        return vehicleRepository.countVehiclesByBrand();
+    }
+
+    @Benchmark
+    public Object dashboardCounters() {
+        return dashboardStatsService.getStats();
+    }
+
+    @Benchmark
+    public void csvExportVehicles(Blackhole blackhole) throws IOException {
+        csvExportService.writeVehicles(new BlackholeOutputStream(blackhole));
+    }
+
+    @Benchmark
+    public void csvExportPersons(Blackhole blackhole) throws IOException {
+        csvExportService.writePersons(new BlackholeOutputStream(blackhole));
+    }
+
+    // A request without If-None-Match / If-Modified-Since, so the API always builds the full response
+    private static WebRequest unconditional() {
+        return new ServletWebRequest(new MockHttpServletRequest());
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.vehiclereg.benchmark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Load check for the prod profile's pool settings, which JMH cannot express: boots the application on a
+// real port with a fixed pool of `poolSize` connections and a 5s acquire timeout (as in
+// application-prod.properties), then sends `rps` requests per second for `seconds`, open loop, to
+// endpoints that each need a connection (keyset person pages and single vehicles). Reports the HTTP
+// latency, failures and the peak number of requests in flight next to the pool's acquire time and
+// acquire timeouts. The database is the seeded H2 benchmark database, so it checks pool sizing and
+// queueing, not MySQL itself. Run with (VIRTUAL_THREADS=true in the environment on a Java 21 runtime
+// for virtual threads):
+// mvn -Pbenchmark compile exec:exec -Dbenchmark.main=com.vehiclereg.benchmark.PoolLoadCheck -Djmh.args="200 60 10"
+public final class PoolLoadCheck {
+
+    private static final int ROWS = 10_000;
+    private static final String CREDENTIALS = "user:user123";
+
+    private PoolLoadCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rps = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(ROWS,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--spring.datasource.hikari.connection-timeout=5000")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            MeterRegistry appRegistry = context.getBean(MeterRegistry.class);
+
+            MeterRegistry loadRegistry = new SimpleMeterRegistry();
+            Timer latency = Timer.builder("load.latency").publishPercentiles(0.5, 0.95, 0.99).register(loadRegistry);
+            AtomicLong failures = new AtomicLong();
+            AtomicInteger inFlightNow = new AtomicInteger();
+            AtomicInteger inFlightMax = new AtomicInteger();
+
+            ExecutorService executor = Executors.newFixedThreadPool(64);
+            HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build();
+            String authorization = "Basic " + Base64.getEncoder().encodeToString(CREDENTIALS.getBytes(StandardCharsets.UTF_8));
+
+            // Warm up the authentication cache and the code paths before measuring
+            send(client, request(port, authorization)).join();
+            double acquiredBefore = acquireTimer(appRegistry).count();
+            double timeoutsBefore = timeouts(appRegistry).count();
+
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+            long total = (long) rps * seconds;
+            CompletableFuture<?>[] inFlight = new CompletableFuture<?>[(int) total];
+            long start = System.nanoTime();
+            for (int i = 0; i < total; i++) {
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                long sent = System.nanoTime();
+                inFlightMax.accumulateAndGet(inFlightNow.incrementAndGet(), Math::max);
+                inFlight[i] = send(client, request(port, authorization)).whenComplete((response, error) -> {
+                    inFlightNow.decrementAndGet();
+                    latency.record(System.nanoTime() - sent, TimeUnit.NANOSECONDS);
+                    if (error != null || response.statusCode() != 200) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+            CompletableFuture.allOf(inFlight).exceptionally(error -> null).join();
+            executor.shutdown();
+
+            Timer acquire = acquireTimer(appRegistry);
+            boolean virtual = context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+            System.out.printf("java=%s threads=%s target=%d rps for %d s, pool=%d, achieved=%.0f rps%n",
+                Runtime.version().feature(), virtual ? "virtual" : "platform", rps, seconds, poolSize,
+                total / ((System.nanoTime() - start) / 1e9));
+            System.out.printf("requests=%d failures=%d latency p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                latency.count(), failures.get(), percentile(latency, 0.5), percentile(latency, 0.95),
+                percentile(latency, 0.99), latency.max(TimeUnit.MILLISECONDS));
+            System.out.printf("max in flight=%d%n", inFlightMax.get());
+            System.out.printf("pool acquires=%.0f mean=%.3f ms max=%.1f ms acquire timeouts=%.0f%n",
+                acquire.count() - acquiredBefore, acquire.mean(TimeUnit.MILLISECONDS),
+                acquire.max(TimeUnit.MILLISECONDS), timeouts(appRegistry).count() - timeoutsBefore);
+        }
+    }
+
+    private static HttpRequest request(int port, String authorization) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String path = random.nextBoolean()
+            ? "/api/persons?limit=20&after=" + random.nextInt(ROWS)
+            : "/api/vehicles/" + BenchmarkContext.regnumber(random.nextInt(ROWS));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Authorization", authorization)
+            .timeout(Duration.ofSeconds(30))
+            .build();
+    }
+
+    private static CompletableFuture<HttpResponse<Void>> send(HttpClient client, HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static Timer acquireTimer(MeterRegistry registry) {
+        return registry.get("hikaricp.connections.acquire").timer();
+    }
+
+    private static Counter timeouts(MeterRegistry registry) {
+        return registry.get("hikaricp.connections.timeout").counter();
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,63 @@
+package com.vehiclereg.benchmark;
+
+import com.vehiclereg.repository.PersonRepository;
+import com.vehiclereg.repository.PhoneRepository;
+import com.vehiclereg.service.PersonSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.concurrent.TimeUnit;
+
+// Person search through the in-memory index versus the LIKE '%x%' repository queries it replaces.
+// Run with: mvn -Pbenchmark compile exec:exec -Djmh.args="SearchBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    @Param({"smi", "anders", "3620"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private PersonRepository personRepository;
+    private PhoneRepository phoneRepository;
+    private PersonSearchIndex personSearchIndex;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start(rows);
+        personRepository = context.getBean(PersonRepository.class);
+        phoneRepository = context.getBean(PhoneRepository.class);
+        personSearchIndex = context.getBean(PersonSearchIndex.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object likeName() {
+        return personRepository.findByNameContainingIgnoreCase(query);
+    }
+
+    @Benchmark
+    public Object likePhoneNumber() {
+        return phoneRepository.findByNumberContaining(query);
+    }
+
+    @Benchmark
+    public Object indexSearch() {
+        return personSearchIndex.search(query, false, 0, 20);
+    }
+
+    @Benchmark
+    public Object indexFuzzySearch() {
+        return personSearchIndex.search(query, true, 0, 20);
+    }
+}
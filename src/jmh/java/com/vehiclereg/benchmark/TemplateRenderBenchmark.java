@@ -0,0 +1,86 @@
+package com.vehiclereg.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Thymeleaf render cost per page (view resolution + template + layout decorator), with and without
+// the template cache. The model comes from one real request to the page, so controller and database
+// time are excluded; see HotPathBenchmark for those.
+// Run with: mvn -Pbenchmark compile exec:exec -Djmh.args="TemplateRenderBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"crud", "database", "admin", "chart"})
+    private String page;
+
+    @Param({"false", "true"})
+    private boolean templateCache;
+
+    private ConfigurableApplicationContext context;
+    private ViewResolver viewResolver;
+    private ModelAndView modelAndView;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = BenchmarkContext.start(ROWS, "--spring.thymeleaf.cache=" + templateCache);
+        viewResolver = context.getBean("thymeleafViewResolver", ViewResolver.class);
+
+        // Security filters are left out; the admin principal and CSRF token they would provide are set directly
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        CsrfToken csrfToken = new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "benchmark");
+
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        MvcResult result = mockMvc.perform(get("/" + page)
+                .requestAttr("_csrf", csrfToken)
+                .requestAttr(CsrfToken.class.getName(), csrfToken))
+            .andReturn();
+        if (result.getResponse().getStatus() != 200 || result.getModelAndView() == null) {
+            throw new IllegalStateException("/" + page + " returned " + result.getResponse().getStatus());
+        }
+        modelAndView = result.getModelAndView();
+        request = result.getRequest();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public int render() throws Exception {
+        View view = viewResolver.resolveViewName(modelAndView.getViewName(), Locale.getDefault());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Map<String, Object> model = modelAndView.getModel();
+        view.render(model, request, response);
+        return response.getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,55 @@
+package com.vehiclereg.config;
+
+import com.vehiclereg.service.ApiTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+
+// Authenticates "Authorization: Bearer <token>" requests from the token alone. Requests without
+// a bearer token fall through to HTTP Basic; an invalid token is rejected outright.
+public class ApiTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String TOKEN_ENDPOINT = "/api/auth/token";
+
+    private final ApiTokenService apiTokenService;
+
+    public ApiTokenAuthenticationFilter(ApiTokenService apiTokenService) {
+        this.apiTokenService = apiTokenService;
+    }
+
+    // Tokens are only issued against real credentials, so a token cannot be used to renew itself
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return TOKEN_ENDPOINT.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Authentication authentication = apiTokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+        if (authentication == null) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,41 @@
+package com.vehiclereg.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String VEHICLE_LISTING = "vehicle-listing";
+    public static final String PERSON_OVERVIEW = "person-overview";
+    public static final String PHONE_OVERVIEW = "phone-overview";
+
+    // Region sizes and TTLs can be overridden with app.cache.<region>.max-size / .ttl
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        registerRegion(cacheManager, environment, VEHICLE_LISTING, 1, Duration.ofSeconds(60));
+        registerRegion(cacheManager, environment, PERSON_OVERVIEW, 1, Duration.ofSeconds(60));
+        registerRegion(cacheManager, environment, PHONE_OVERVIEW, 1, Duration.ofSeconds(60));
+        return cacheManager;
+    }
+
+    private void registerRegion(CaffeineCacheManager cacheManager, Environment environment,
+                                String name, long defaultMaxSize, Duration defaultTtl) {
+        long maxSize = environment.getProperty("app.cache." + name + ".max-size", Long.class, defaultMaxSize);
+        Duration ttl = environment.getProperty("app.cache." + name + ".ttl", Duration.class, defaultTtl);
+        cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build());
+    }
+}
@@ -0,0 +1,49 @@
+package com.vehiclereg.config;
+
+import com.vehiclereg.service.AuthenticationCache;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+// Consults the authentication cache before delegating; only successful results are cached,
+// so failed attempts always pay the full BCrypt cost
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final AuthenticationCache authenticationCache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, AuthenticationCache authenticationCache) {
+        this.delegate = delegate;
+        this.authenticationCache = authenticationCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || !(credentials instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        Authentication cached = authenticationCache.get(username, password);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.authenticated(
+                cached.getPrincipal(), null, cached.getAuthorities());
+            token.setDetails(authentication.getDetails());
+            return token;
+        }
+
+        long generation = authenticationCache.generation();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            authenticationCache.put(username, password, result, generation);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
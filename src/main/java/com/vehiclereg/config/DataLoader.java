@@ -2,6 +2,8 @@ package com.vehiclereg.config;
 
 import com.vehiclereg.entity.*;
 import com.vehiclereg.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -10,6 +12,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class DataLoader implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
     @Autowired
     private UserRepository userRepository;
     
@@ -54,7 +58,7 @@ public class DataLoader implements CommandLineRunner {
             testUser.setRole(User.Role.REGISTERED);
             userRepository.save(testUser);
             
-            System.out.println("✓ Initial users created: admin/admin123, user/user123");
+            log.info("Initial users created: admin, user");
         }
           // Load vehicles data first (since persons reference vehicles)
         if (vehicleRepository.count() == 0) {
@@ -68,7 +72,7 @@ public class DataLoader implements CommandLineRunner {
             vehicleRepository.save(vehicle3);
             vehicleRepository.save(vehicle4);
             
-            System.out.println("✓ Initial vehicles data loaded");
+            log.info("Initial vehicles data loaded");
         }
         
         // Load persons data if not exist (after vehicles are loaded)
@@ -83,7 +87,7 @@ public class DataLoader implements CommandLineRunner {
             personRepository.save(person3);
             personRepository.save(person4);
             
-            System.out.println("✓ Initial persons data loaded");
+            log.info("Initial persons data loaded");
         }
         
         // Load phones data if not exist
@@ -106,7 +110,7 @@ public class DataLoader implements CommandLineRunner {
                 phoneRepository.save(new Phone(viola.getId(), "345987"));
             }
             
-            System.out.println("✓ Initial phones data loaded");
+            log.info("Initial phones data loaded");
         }
         
         // Load sample contact messages if not exist
@@ -132,12 +136,9 @@ public class DataLoader implements CommandLineRunner {
             msg3.setMessage("Great system! Very user-friendly and efficient. Keep up the good work!");
             contactMessageRepository.save(msg3);
             
-            System.out.println("✓ Sample contact messages loaded");
+            log.info("Sample contact messages loaded");
         }
         
-        System.out.println("=== Data initialization completed ===");
-        System.out.println("Admin login: admin/admin123");
-        System.out.println("User login: user/user123");
-        System.out.println("=====================================");
+        log.info("Data initialization completed");
     }
 }
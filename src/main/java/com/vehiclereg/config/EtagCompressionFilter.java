@@ -0,0 +1,226 @@
+package com.vehiclereg.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Gzips API responses that carry a strong ETag (TableVersionService), which Tomcat's own compression
+// always skips. As mod_deflate does, the compressed representation gets its own tag with a "-gzip"
+// suffix, and the suffix is removed from If-None-Match again so the controllers' checkNotModified
+// matches the tag they issued. Responses without an ETag are left to server.compression.
+@Component
+public class EtagCompressionFilter extends OncePerRequestFilter {
+
+    static final String SUFFIX = "-gzip";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/") || !acceptsGzip(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GzipResponse gzipResponse = new GzipResponse(response);
+        filterChain.doFilter(new IfNoneMatchRequest(request), gzipResponse);
+        // Streaming endpoints answer asynchronously and send no ETag, so only synchronous bodies are compressed
+        if (!request.isAsyncStarted()) {
+            gzipResponse.finish();
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (values.hasMoreElements()) {
+            for (String coding : values.nextElement().split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip") && !(parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class IfNoneMatchRequest extends HttpServletRequestWrapper {
+
+        IfNoneMatchRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) && value != null ? value.replace(SUFFIX + "\"", "\"") : value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (!HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)) {
+                return super.getHeaders(name);
+            }
+            List<String> values = Collections.list(super.getHeaders(name));
+            return Collections.enumeration(values.stream().map(value -> value.replace(SUFFIX + "\"", "\"")).toList());
+        }
+    }
+
+    private static final class GzipResponse extends HttpServletResponseWrapper {
+
+        private GzipOutputStream gzipStream;
+        private PrintWriter writer;
+
+        GzipResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            super.setHeader(name, tagged(name, value));
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            super.addHeader(name, tagged(name, value));
+        }
+
+        // The length of the uncompressed body does not apply once it is compressed
+        @Override
+        public void setContentLength(int length) {
+            if (!compressing()) {
+                super.setContentLength(length);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (!compressing()) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (!compressing()) {
+                return super.getOutputStream();
+            }
+            if (gzipStream == null) {
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                super.setContentLengthLong(-1);
+                gzipStream = new GzipOutputStream(super.getOutputStream());
+            }
+            return gzipStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (!compressing()) {
+                return super.getWriter();
+            }
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (gzipStream != null) {
+                gzipStream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+        }
+
+        private boolean compressing() {
+            String etag = getHeader(HttpHeaders.ETAG);
+            return etag != null && etag.endsWith(SUFFIX + "\"");
+        }
+
+        private static String tagged(String name, String value) {
+            if (HttpHeaders.ETAG.equalsIgnoreCase(name) && value != null && value.startsWith("\"") && !value.endsWith(SUFFIX + "\"")) {
+                return value.substring(0, value.length() - 1) + SUFFIX + "\"";
+            }
+            return value;
+        }
+    }
+
+    private static final class GzipOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+        private final GZIPOutputStream gzip;
+        private boolean closed;
+
+        GzipOutputStream(ServletOutputStream target) throws IOException {
+            this.target = target;
+            this.gzip = new GZIPOutputStream(target, 8192);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            gzip.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            gzip.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            gzip.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                gzip.close();
+            }
+        }
+
+        void finish() throws IOException {
+            if (!closed) {
+                gzip.finish();
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            target.setWriteListener(listener);
+        }
+    }
+}
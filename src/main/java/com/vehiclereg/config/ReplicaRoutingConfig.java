@@ -0,0 +1,62 @@
+package com.vehiclereg.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+// Active when app.datasource.replica.urls is set; otherwise Boot's single spring.datasource pool is used.
+// The primary pool is built here the way Boot would build it (spring.datasource.*, spring.datasource.hikari.*),
+// and the application DataSource becomes the routing proxy in front of it.
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaSet replicaSet(HikariDataSource primaryDataSource, MeterRegistry meterRegistry,
+                                 @Value("${app.datasource.replica.urls}") List<String> urls,
+                                 @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                 @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                 @Value("${app.datasource.replica.pool-size:10}") int poolSize,
+                                 @Value("${app.datasource.replica.check-interval:1s}") Duration checkInterval,
+                                 @Value("${app.datasource.replica.max-lag:2s}") Duration maxLag,
+                                 @Value("${app.datasource.replica.read-your-writes:true}") boolean readYourWrites) {
+        return new ReplicaSet(primaryDataSource, urls, username, password, poolSize,
+            checkInterval, maxLag, readYourWrites, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaSet replicaSet) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaSet));
+    }
+
+    // By default a Hibernate session holds its first connection until it closes, which with open-in-view
+    // is the end of the request: a write after a read-only lookup would then go to the replica. Releasing
+    // after each transaction lets every transaction be routed on its own.
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,49 @@
+package com.vehiclereg.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Hands out replica connections to read-only transactions (@Transactional(readOnly = true), Spring Data
+// finders, read-only TransactionTemplates) and primary connections to everything else. Must sit behind
+// a LazyConnectionDataSourceProxy: the read-only flag is only visible once the transaction has started,
+// which is after the transaction manager asks for its connection. Unwrapping reaches the primary pool.
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+
+    private final ReplicaSet replicaSet;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicaSet) {
+        super(primary);
+        this.replicaSet = replicaSet;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReplicaSet.Replica replica = replicaSet.pick();
+            if (replica != null) {
+                try {
+                    Connection connection = replica.pool.getConnection();
+                    replica.reads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replicaSet.markUnreachable(replica, e);
+                }
+            }
+            replicaSet.countPrimaryRead();
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Read-your-writes: replicas wait for the next heartbeat once this transaction commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replicaSet.recordWrite();
+                }
+            });
+        }
+        return obtainTargetDataSource().getConnection();
+    }
+}
@@ -0,0 +1,252 @@
+package com.vehiclereg.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The read replicas behind ReplicaRoutingDataSource and their replication lag. A checker thread
+// reads this instance's heartbeat row from every replica and then writes a new beat to the primary,
+// once per check interval. Every instance has its own row, so beats are only ever compared with
+// beats from the same clock. A replica takes reads only while its last check succeeded, it has
+// replayed one of this instance's beats, it is at most max-lag behind the latest one and, with
+// read-your-writes on, that beat was written after this instance's last committed write.
+// Otherwise reads stay on the primary.
+public class ReplicaSet implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSet.class);
+
+    private static final String READ_HEARTBEAT = "SELECT beat_millis FROM replication_heartbeat WHERE instance_id = ?";
+    private static final String UPDATE_HEARTBEAT = "UPDATE replication_heartbeat SET beat_millis = ? WHERE instance_id = ?";
+    private static final String INSERT_HEARTBEAT = "INSERT INTO replication_heartbeat (instance_id, beat_millis) VALUES (?, ?)";
+    private static final String DELETE_HEARTBEAT = "DELETE FROM replication_heartbeat WHERE instance_id = ?";
+    // Rows left behind by instances that did not shut down cleanly
+    private static final String DELETE_STALE_HEARTBEATS = "DELETE FROM replication_heartbeat WHERE beat_millis < ?";
+    private static final Duration STALE_HEARTBEAT_AGE = Duration.ofDays(1);
+
+    private final JdbcTemplate primary;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration checkInterval;
+    private final Duration maxLag;
+    private final boolean readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+
+    private volatile long lastBeat;
+    private volatile long lastWriteAt;
+    private volatile boolean running;
+    private Thread checker;
+
+    public ReplicaSet(DataSource primary, List<String> urls, String username, String password, int poolSize,
+                      Duration checkInterval, Duration maxLag, boolean readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.checkInterval = checkInterval;
+        this.maxLag = maxLag;
+        this.readYourWrites = readYourWrites;
+
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("vehiclereg-" + name);
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // Start even if a replica is down, and give up quickly so the read falls back to the primary
+            pool.setInitializationFailTimeout(-1);
+            pool.setConnectionTimeout(2000);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            Replica replica = new Replica(name, pool, Counter.builder("datasource.routing.reads")
+                .description("Read-only transactions by the datasource that served them")
+                .tag("target", name)
+                .register(meterRegistry));
+            replicas.add(replica);
+
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMillis >= 0 ? r.lagMillis / 1000.0 : Double.NaN)
+                .description("Replication lag measured by the heartbeat")
+                .baseUnit("seconds")
+                .tag("replica", name)
+                .register(meterRegistry);
+            Gauge.builder("datasource.replica.usable", replica, r -> usable(r, System.currentTimeMillis()) ? 1 : 0)
+                .tag("replica", name)
+                .register(meterRegistry);
+        }
+        this.primaryReads = Counter.builder("datasource.routing.reads")
+            .description("Read-only transactions by the datasource that served them")
+            .tag("target", "primary")
+            .register(meterRegistry);
+    }
+
+    // Round-robin over the replicas that may take a read right now; null means use the primary
+    Replica pick() {
+        long now = System.currentTimeMillis();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (usable(replica, now)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // A replica that refused a connection is skipped until the next successful check
+    void markUnreachable(Replica replica, Exception e) {
+        if (replica.error == null) {
+            log.warn("Read replica {} unavailable, reading from the primary: {}", replica.name, e.getMessage());
+        }
+        replica.error = e.getMessage();
+    }
+
+    void recordWrite() {
+        lastWriteAt = System.currentTimeMillis();
+    }
+
+    void countPrimaryRead() {
+        primaryReads.increment();
+    }
+
+    public List<Map<String, Object>> status() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", replica.name);
+            entry.put("url", replica.pool.getJdbcUrl());
+            entry.put("usable", usable(replica, now));
+            entry.put("lagMs", replica.lagMillis >= 0 ? replica.lagMillis : null);
+            entry.put("error", replica.error);
+            entry.put("reads", (long) replica.reads.count());
+            HikariPoolMXBean pool = replica.pool.getHikariPoolMXBean();
+            if (pool != null) {
+                entry.put("active", pool.getActiveConnections());
+                entry.put("idle", pool.getIdleConnections());
+            }
+            status.add(entry);
+        }
+        return status;
+    }
+
+    private boolean usable(Replica replica, long now) {
+        return replica.error == null
+            // a stalled checker must not leave the last verdict in force
+            && now - replica.checkedAt <= checkInterval.toMillis() + maxLag.toMillis()
+            && replica.lagMillis >= 0
+            && replica.lagMillis <= maxLag.toMillis()
+            && (!readYourWrites || replica.replayedBeat > lastWriteAt);
+    }
+
+    // Replicas are read before the new beat is written, so each has a full interval to replay the previous one
+    void check() {
+        for (Replica replica : replicas) {
+            try {
+                List<Long> replayed = new JdbcTemplate(replica.pool).queryForList(READ_HEARTBEAT, Long.class, instanceId);
+                replica.replayedBeat = replayed.isEmpty() ? 0 : replayed.get(0);
+                // Unknown (-1) until this instance has written a beat and the replica has replayed one
+                replica.lagMillis = lastBeat > 0 && replica.replayedBeat > 0 ? Math.max(0, lastBeat - replica.replayedBeat) : -1;
+                if (replica.error != null) {
+                    log.info("Read replica {} is back", replica.name);
+                }
+                replica.error = null;
+            } catch (DataAccessException e) {
+                markUnreachable(replica, e);
+            }
+            replica.checkedAt = System.currentTimeMillis();
+        }
+
+        long beat = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_HEARTBEAT, beat, instanceId) == 0) {
+                primary.update(INSERT_HEARTBEAT, instanceId, beat);
+            }
+            lastBeat = beat;
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat: {}", e.getMessage());
+        }
+    }
+
+    private void runChecks() {
+        try {
+            primary.update(DELETE_STALE_HEARTBEATS, System.currentTimeMillis() - STALE_HEARTBEAT_AGE.toMillis());
+        } catch (DataAccessException e) {
+            log.warn("Could not remove stale replication heartbeats: {}", e.getMessage());
+        }
+        while (running) {
+            try {
+                check();
+                Thread.sleep(checkInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Replica lag check failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        checker = new Thread(this::runChecks, "replica-lag-checker");
+        checker.setDaemon(true);
+        checker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        checker.interrupt();
+        try {
+            checker.join(checkInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            primary.update(DELETE_HEARTBEAT, instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Could not remove the replication heartbeat: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    static final class Replica {
+        final String name;
+        final HikariDataSource pool;
+        final Counter reads;
+        volatile long replayedBeat;
+        volatile long lagMillis = -1;
+        volatile long checkedAt;
+        volatile String error;
+
+        Replica(String name, HikariDataSource pool, Counter reads) {
+            this.name = name;
+            this.pool = pool;
+            this.reads = reads;
+        }
+    }
+}
@@ -1,25 +1,40 @@
 package com.vehiclereg.config;
 
+import com.vehiclereg.service.ApiTokenService;
+import com.vehiclereg.service.AuthenticationCache;
 import com.vehiclereg.service.UserDetailsServiceImpl;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.csrf.CsrfFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
+    private final AuthenticationCache authenticationCache;
+    private final ApiTokenService apiTokenService;
 
-    public SecurityConfig(UserDetailsServiceImpl userDetailsService) {
+    public SecurityConfig(UserDetailsServiceImpl userDetailsService, AuthenticationCache authenticationCache,
+                          ApiTokenService apiTokenService) {
         this.userDetailsService = userDetailsService;
+        this.authenticationCache = authenticationCache;
+        this.apiTokenService = apiTokenService;
     }
 
     @Bean
@@ -28,11 +43,11 @@ public class SecurityConfig {
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
-        return authProvider;
+        return new CachingAuthenticationProvider(authProvider, authenticationCache);
     }
 
     @Bean
@@ -40,17 +55,47 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // REST API chain: bearer tokens or HTTP Basic, and never creates a session. The application's own
+    // pages call it with the session of a form login, so an existing session is still read; those
+    // cookie-authenticated calls need a CSRF token for unsafe methods, header-authenticated ones do not.
     @Bean
+    @Order(1)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/api/**")
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers("/api/import/**").hasRole("ADMIN")
+                .anyRequest().hasAnyRole("REGISTERED", "ADMIN")
+            )
+            .httpBasic(basic -> {})
+            .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService), BasicAuthenticationFilter.class)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.NEVER))
+            .csrf(csrf -> csrf.requireCsrfProtectionMatcher(sessionAuthenticatedUnsafeRequest()))
+            .authenticationProvider(authenticationProvider());
+
+        return http.build();
+    }
+
+    private static RequestMatcher sessionAuthenticatedUnsafeRequest() {
+        return new AndRequestMatcher(CsrfFilter.DEFAULT_CSRF_MATCHER,
+            request -> request.getHeader(HttpHeaders.AUTHORIZATION) == null,
+            request -> request.getSession(false) != null);
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/", "/home", "/database", "/chart", "/css/**", "/js/**", "/images/**").permitAll()
                 .requestMatchers("/register", "/register/**").permitAll()
+                .requestMatchers("/error").permitAll()
                 .requestMatchers("/contact", "/contact/**").permitAll()
                 .requestMatchers("/crud/**", "/vehicles/**").permitAll()
                 .requestMatchers("/messages/**").hasAnyRole("REGISTERED", "ADMIN")
+                .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/admin/**").hasRole("ADMIN")
-                .requestMatchers("/api/**").hasAnyRole("REGISTERED", "ADMIN")
                 .anyRequest().authenticated()
             )
             .httpBasic(basic -> {})
@@ -68,9 +113,6 @@ public class SecurityConfig {
                 .logoutSuccessUrl("/?logout=true")
                 .permitAll()
             )
-            .csrf(csrf -> csrf
-                .ignoringRequestMatchers("/api/**")
-            )
             .authenticationProvider(authenticationProvider());
 
         return http.build();
@@ -0,0 +1,71 @@
+package com.vehiclereg.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Static assets are served under content-hashed URLs (style.css -> style-<md5>.css). Thymeleaf's @{...}
+// links are rewritten through ResourceUrlEncodingFilter, so a changed file gets a new URL and the
+// hashed URLs can be cached for a year without revalidation. Precompressed .br/.gz siblings
+// generated at build time (src/build/precompress-assets.groovy) are served when the client accepts them.
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final String[] ASSET_DIRS = {"css", "js"};
+    // VersionResourceResolver's content strategy appends the MD5 of the file as 32 hex characters
+    // (spelled out: path pattern captures do not allow {n} quantifiers)
+    private static final String FINGERPRINTED_FILE = "{file:.+-" + "[0-9a-f]".repeat(32) + "\\.[a-z0-9]+}";
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String dir : ASSET_DIRS) {
+            String location = "classpath:/static/" + dir + "/";
+
+            // The fingerprint changes with the content, so these responses never need revalidating
+            registry.addResourceHandler("/" + dir + "/" + FINGERPRINTED_FILE)
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+
+            // Plain URLs (bookmarks, external links) still work but are revalidated via Last-Modified
+            registry.addResourceHandler("/" + dir + "/**")
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.noCache().cachePublic())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    // Only the precompressed responses carry Vary from the resolver; the identity response must have it too,
+    // or a shared cache that stored it would hand it to clients that asked for br/gzip (and vice versa)
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                return true;
+            }
+        }).addPathPatterns(Arrays.stream(ASSET_DIRS).map(dir -> "/" + dir + "/**").toArray(String[]::new));
+    }
+
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -0,0 +1,102 @@
+package com.vehiclereg.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.cache.TemplateCacheKey;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.EngineContext;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.exceptions.TemplateInputException;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// With template caching on (prod profile), parses every template under templates/ once at startup
+// so the first request to each page does not pay for parsing it and its layout decorator. Nothing
+// is rendered: processThrottled parses the page into the cache under the same key a view render
+// uses and only processes on demand. The layout dialect looks the decorator and the page itself up
+// again with parseStandalone in the page's context, so both are parsed that way too.
+@Component
+public class TemplatePrewarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplatePrewarmer.class);
+    // Template name of a fragment expression such as ~{fragments/layout}
+    private static final Pattern FRAGMENT_TEMPLATE = Pattern.compile("~\\{\\s*([^\\s:}]+)");
+
+    private final SpringTemplateEngine templateEngine;
+    private final ThymeleafProperties properties;
+
+    public TemplatePrewarmer(SpringTemplateEngine templateEngine, ThymeleafProperties properties) {
+        this.templateEngine = templateEngine;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        if (!properties.isCache()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int parsed = 0;
+        try {
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+            String root = resolver.getResource(properties.getPrefix()).getURL().toString();
+            for (Resource resource : resolver.getResources(properties.getPrefix() + "**/*" + properties.getSuffix())) {
+                String url = resource.getURL().toString();
+                if (!url.startsWith(root)) {
+                    continue;
+                }
+                String name = url.substring(root.length(), url.length() - properties.getSuffix().length());
+                try {
+                    templateEngine.processThrottled(name, new Context());
+                    parseDecorator(name);
+                } catch (TemplateInputException e) {
+                    log.warn("Template {} could not be parsed: {}", name, e.getMessage());
+                }
+                parsed++;
+            }
+        } catch (IOException e) {
+            log.warn("Template pre-warming skipped: {}", e.getMessage());
+            return;
+        }
+
+        log.info("Pre-parsed {} templates ({} template cache entries) in {} ms", parsed,
+            templateEngine.getConfiguration().getCacheManager().getTemplateCache().keySet().size(),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Those lookups are cached per decorated page, so they are repeated for each page
+    private void parseDecorator(String name) {
+        IEngineConfiguration configuration = templateEngine.getConfiguration();
+        TemplateModel page = configuration.getCacheManager().getTemplateCache()
+            .get(new TemplateCacheKey(null, name, null, 0, 0, null, null));
+        if (page == null) {
+            return;
+        }
+        ITemplateContext context = new EngineContext(configuration, page.getTemplateData(), null, Locale.getDefault(), null);
+        for (int i = 0; i < page.size(); i++) {
+            if (page.get(i) instanceof IProcessableElementTag tag && tag.getAttributeValue("layout", "decorate") != null) {
+                Matcher decorator = FRAGMENT_TEMPLATE.matcher(tag.getAttributeValue("layout", "decorate"));
+                if (decorator.find()) {
+                    configuration.getTemplateManager().parseStandalone(
+                        context, decorator.group(1), null, context.getTemplateMode(), true, true);
+                    configuration.getTemplateManager().parseStandalone(
+                        context, name, null, context.getTemplateMode(), true, true);
+                }
+                return;
+            }
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.vehiclereg.controller;
 
+import com.vehiclereg.dto.DashboardStats;
 import com.vehiclereg.entity.User;
 import com.vehiclereg.repository.UserRepository;
-import com.vehiclereg.repository.PersonRepository;
-import com.vehiclereg.repository.VehicleRepository;
-import com.vehiclereg.repository.ContactMessageRepository;
+import com.vehiclereg.service.CacheManagementService;
+import com.vehiclereg.service.ConnectionPoolService;
+import com.vehiclereg.service.CsvExportService;
+import com.vehiclereg.service.DashboardStatsService;
+import com.vehiclereg.service.SecondLevelCacheService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,11 +15,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/admin")
@@ -24,28 +28,34 @@ import java.util.Optional;
 public class AdminController {
 
     private final UserRepository userRepository;
-    private final PersonRepository personRepository;
-    private final VehicleRepository vehicleRepository;
-    private final ContactMessageRepository contactMessageRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final CsvExportService csvExportService;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final CacheManagementService cacheManagementService;
+    private final ConnectionPoolService connectionPoolService;
 
-    public AdminController(UserRepository userRepository, PersonRepository personRepository, 
-                          VehicleRepository vehicleRepository, ContactMessageRepository contactMessageRepository) {
+    public AdminController(UserRepository userRepository, DashboardStatsService dashboardStatsService,
+                          CsvExportService csvExportService, SecondLevelCacheService secondLevelCacheService,
+                          CacheManagementService cacheManagementService, ConnectionPoolService connectionPoolService) {
         this.userRepository = userRepository;
-        this.personRepository = personRepository;
-        this.vehicleRepository = vehicleRepository;
-        this.contactMessageRepository = contactMessageRepository;
+        this.dashboardStatsService = dashboardStatsService;
+        this.csvExportService = csvExportService;
+        this.secondLevelCacheService = secondLevelCacheService;
+        this.cacheManagementService = cacheManagementService;
+        this.connectionPoolService = connectionPoolService;
     }
 
     @GetMapping
     public String admin(Model model) {
         List<User> users = userRepository.findAll();
+        DashboardStats stats = dashboardStatsService.getStats();
         
         model.addAttribute("pageTitle", "Admin Dashboard");
         model.addAttribute("users", users);
         model.addAttribute("totalUsers", users.size());
-        model.addAttribute("totalPersons", personRepository.count());
-        model.addAttribute("totalVehicles", vehicleRepository.count());
-        model.addAttribute("totalMessages", contactMessageRepository.count());
+        model.addAttribute("totalPersons", stats.getTotalPersons());
+        model.addAttribute("totalVehicles", stats.getTotalVehicles());
+        model.addAttribute("totalMessages", stats.getTotalMessages());
         
         return "admin/index";
     }
@@ -61,39 +71,23 @@ public class AdminController {
     }
 
     @GetMapping("/users/export")
-    public ResponseEntity<byte[]> exportUsers() {
-        List<User> users = userRepository.findAll();
-        
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PrintWriter writer = new PrintWriter(outputStream);
-        
-        // CSV Header
-        writer.println("ID,Username,Email,Full Name,Role,Created At");
-        
-        // CSV Data
-        for (User user : users) {
-            writer.printf("%d,\"%s\",\"%s\",\"%s\",%s,%s%n",
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getFullName(),
-                user.getRole(),
-                user.getCreatedAt());
-        }
-        
-        writer.flush();
-        writer.close();
-        
-        byte[] csvBytes = outputStream.toByteArray();
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDispositionFormData("attachment", "users_export.csv");
-        headers.setContentLength(csvBytes.length);
-        
-        return ResponseEntity.ok()
-            .headers(headers)
-            .body(csvBytes);
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvExport("users_export.csv", gzip, csvExportService::writeUsers);
+    }
+
+    @GetMapping("/persons/export")
+    public ResponseEntity<StreamingResponseBody> exportPersons(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvExport("persons_export.csv", gzip, csvExportService::writePersons);
+    }
+
+    @GetMapping("/vehicles/export")
+    public ResponseEntity<StreamingResponseBody> exportVehicles(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvExport("vehicles_export.csv", gzip, csvExportService::writeVehicles);
+    }
+
+    @GetMapping("/phones/export")
+    public ResponseEntity<StreamingResponseBody> exportPhones(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvExport("phones_export.csv", gzip, csvExportService::writePhones);
     }
 
     @PostMapping("/users/{id}/delete")
@@ -115,10 +109,75 @@ public class AdminController {
         return "redirect:/admin/users";
     }
 
+    @GetMapping("/datasource/pool")
+    @ResponseBody
+    public Map<String, Object> connectionPool() {
+        return connectionPoolService.statistics();
+    }
+
+    @GetMapping("/cache/second-level")
+    @ResponseBody
+    public Map<String, Object> secondLevelCacheStatistics() {
+        return secondLevelCacheService.statistics();
+    }
+
+    @GetMapping("/cache")
+    @ResponseBody
+    public List<Map<String, Object>> cacheRegions() {
+        return cacheManagementService.regions();
+    }
+
+    @PostMapping("/cache/{region}/evict")
+    @ResponseBody
+    public ResponseEntity<String> evictCache(@PathVariable String region, @RequestParam(required = false) String key) {
+        if (!cacheManagementService.exists(region)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (key != null) {
+            boolean evicted = cacheManagementService.evictKey(region, key);
+            return ResponseEntity.ok(evicted
+                ? "Evicted key '" + key + "' from " + region
+                : "Key '" + key + "' was not cached in " + region);
+        }
+        cacheManagementService.evictRegion(region);
+        return ResponseEntity.ok("Cache region " + region + " cleared");
+    }
+
+    @PostMapping("/cache/{region}/warm")
+    @ResponseBody
+    public ResponseEntity<String> warmCache(@PathVariable String region) {
+        if (!cacheManagementService.exists(region)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!cacheManagementService.warmRegion(region)) {
+            return ResponseEntity.badRequest().body("Cache region " + region + " cannot be warmed");
+        }
+        return ResponseEntity.ok("Cache region " + region + " warmed");
+    }
+
     @PostMapping("/cache/clear")
     @ResponseBody
     public ResponseEntity<String> clearCache() {
-        System.out.println("Cache cleared by admin");
+        cacheManagementService.clearAll();
         return ResponseEntity.ok("Cache cleared successfully!");
     }
+
+    // Rows are written straight to the response as they are read, optionally gzipped
+    private ResponseEntity<StreamingResponseBody> csvExport(String filename, boolean gzip, StreamingResponseBody csv) {
+        HttpHeaders headers = new HttpHeaders();
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            headers.setContentDispositionFormData("attachment", filename + ".gz");
+            StreamingResponseBody body = out -> {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 16 * 1024);
+                csv.writeTo(gzipOut);
+                gzipOut.finish();
+            };
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+        
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", filename);
+        return ResponseEntity.ok().headers(headers).body(csv);
+    }
 }
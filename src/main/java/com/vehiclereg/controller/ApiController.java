@@ -4,8 +4,20 @@ import com.vehiclereg.entity.Person;
 import com.vehiclereg.entity.Vehicle;
 import com.vehiclereg.repository.PersonRepository;
 import com.vehiclereg.repository.VehicleRepository;
+import com.vehiclereg.service.EntityStreamService;
+import com.vehiclereg.service.PersonService;
+import com.vehiclereg.service.TableVersionService;
+import com.vehiclereg.service.VehicleService;
+import com.vehiclereg.service.VehicleStatisticsStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,24 +25,71 @@ import java.util.Optional;
 @RequestMapping("/api")
 public class ApiController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    // Clients may keep responses but must revalidate them (If-None-Match / If-Modified-Since)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final PersonRepository personRepository;
     private final VehicleRepository vehicleRepository;
+    private final PersonService personService;
+    private final VehicleService vehicleService;
+    private final EntityStreamService entityStreamService;
+    private final VehicleStatisticsStore vehicleStatisticsStore;
+    private final TableVersionService tableVersionService;
+    private final ObjectMapper objectMapper;
 
-    public ApiController(PersonRepository personRepository, VehicleRepository vehicleRepository) {
+    public ApiController(PersonRepository personRepository, VehicleRepository vehicleRepository,
+                         PersonService personService, VehicleService vehicleService,
+                         EntityStreamService entityStreamService, VehicleStatisticsStore vehicleStatisticsStore,
+                         TableVersionService tableVersionService, ObjectMapper objectMapper) {
         this.personRepository = personRepository;
         this.vehicleRepository = vehicleRepository;
+        this.personService = personService;
+        this.vehicleService = vehicleService;
+        this.entityStreamService = entityStreamService;
+        this.vehicleStatisticsStore = vehicleStatisticsStore;
+        this.tableVersionService = tableVersionService;
+        this.objectMapper = objectMapper;
     }
 
     // Person API endpoints
     @GetMapping("/persons")
-    public List<Person> getAllPersons() {
-        return personRepository.findAll();
+    public ResponseEntity<List<Person>> getAllPersons(@RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) Long after,
+                                                      WebRequest request) {
+        if (notModified(request, TableVersionService.PERSONS, TableVersionService.PHONES)) {
+            return null;
+        }
+        if (limit == null && after == null) {
+            return ok().body(personService.findAllWithPhones());
+        }
+        
+        int pageSize = pageSize(limit);
+        List<Person> page = personService.findPageWithPhones(after != null ? after : 0L, pageSize);
+        
+        String nextCursor = page.size() == pageSize ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+        return ok().headers(pageHeaders(pageSize, nextCursor)).body(page);
+    }
+
+    // The streams carry no validators: without a strong ETag the server can gzip them as they are written
+    @GetMapping(value = "/stream/persons", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamPersons() {
+        StreamingResponseBody body = out -> entityStreamService.forEach(personService::streamWithPhones, person -> {
+            out.write(objectMapper.writeValueAsBytes(person));
+            out.write('\n');
+        });
+        return ok().contentType(NDJSON).body(body);
     }
 
     @GetMapping("/persons/{id}")
-    public ResponseEntity<Person> getPersonById(@PathVariable Long id) {
-        Optional<Person> person = personRepository.findById(id);
-        return person.map(ResponseEntity::ok)
+    public ResponseEntity<Person> getPersonById(@PathVariable Long id, WebRequest request) {
+        if (notModified(request, TableVersionService.PERSONS, TableVersionService.PHONES)) {
+            return null;
+        }
+        Optional<Person> person = personService.findWithPhones(id);
+        return person.map(found -> ok().body(found))
                     .orElse(ResponseEntity.notFound().build());
     }
 
@@ -78,14 +137,39 @@ public class ApiController {
 
     // Vehicle API endpoints
     @GetMapping("/vehicles")
-    public List<Vehicle> getAllVehicles() {
-        return vehicleRepository.findAll();
+    public ResponseEntity<List<Vehicle>> getAllVehicles(@RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String after,
+                                                        WebRequest request) {
+        if (notModified(request, TableVersionService.VEHICLES)) {
+            return null;
+        }
+        if (limit == null && after == null) {
+            return ok().body(vehicleService.findAll());
+        }
+        
+        int pageSize = pageSize(limit);
+        List<Vehicle> page = vehicleService.findPage(after != null ? after : "", pageSize);
+        
+        String nextCursor = page.size() == pageSize ? page.get(page.size() - 1).getRegnum() : null;
+        return ok().headers(pageHeaders(pageSize, nextCursor)).body(page);
+    }
+
+    @GetMapping(value = "/stream/vehicles", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamVehicles() {
+        StreamingResponseBody body = out -> entityStreamService.forEach(vehicleRepository::streamAll, vehicle -> {
+            out.write(objectMapper.writeValueAsBytes(vehicle));
+            out.write('\n');
+        });
+        return ok().contentType(NDJSON).body(body);
     }
 
     @GetMapping("/vehicles/{regnum}")
-    public ResponseEntity<Vehicle> getVehicleByRegnum(@PathVariable String regnum) {
-        Optional<Vehicle> vehicle = vehicleRepository.findById(regnum);
-        return vehicle.map(ResponseEntity::ok)
+    public ResponseEntity<Vehicle> getVehicleByRegnum(@PathVariable String regnum, WebRequest request) {
+        if (notModified(request, TableVersionService.VEHICLES)) {
+            return null;
+        }
+        Optional<Vehicle> vehicle = vehicleService.findById(regnum);
+        return vehicle.map(found -> ok().body(found))
                      .orElse(ResponseEntity.notFound().build());
     }
 
@@ -130,12 +214,50 @@ public class ApiController {
 
     // Statistics endpoints
     @GetMapping("/stats/vehicles-by-brand")
-    public List<Object[]> getVehiclesByBrand() {
-        return vehicleRepository.countVehiclesByBrand();
+    public ResponseEntity<List<Object[]>> getVehiclesByBrand(WebRequest request) {
+        if (notModified(request, TableVersionService.VEHICLES)) {
+            return null;
+        }
+        return ok().body(vehicleStatisticsStore.getBrandCountRows());
     }
 
     @GetMapping("/stats/vehicles-by-color")
-    public List<Object[]> getVehiclesByColor() {
-        return vehicleRepository.countVehiclesByColor();
+    public ResponseEntity<List<Object[]>> getVehiclesByColor(WebRequest request) {
+        if (notModified(request, TableVersionService.VEHICLES)) {
+            return null;
+        }
+        return ok().body(vehicleStatisticsStore.getColorCountRows());
+    }
+
+    // Conditional GET helpers: the validators come from the table versions, so a matching
+    // If-None-Match / If-Modified-Since is answered with 304 before any query or serialization.
+    // On a miss checkNotModified has already set the ETag and Last-Modified response headers.
+    private boolean notModified(WebRequest request, String... tables) {
+        return request.checkNotModified(tableVersionService.etag(tables), tableVersionService.lastModified(tables));
+    }
+
+    private ResponseEntity.BodyBuilder ok() {
+        return ResponseEntity.ok().cacheControl(REVALIDATE);
+    }
+
+    // Keyset pagination helpers
+    private int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private HttpHeaders pageHeaders(int pageSize, String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("limit", pageSize)
+                .replaceQueryParam("after", nextCursor)
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            headers.add("X-Next-Cursor", nextCursor);
+        }
+        return headers;
     }
 }
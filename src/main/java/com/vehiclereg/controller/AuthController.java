@@ -2,6 +2,8 @@ package com.vehiclereg.controller;
 
 import com.vehiclereg.entity.User;
 import com.vehiclereg.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -14,6 +16,8 @@ import jakarta.validation.Valid;
 @Controller
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final UserService userService;
 
     public AuthController(UserService userService) {
@@ -38,12 +42,10 @@ public class AuthController {
                           RedirectAttributes redirectAttributes, Model model) {
         model.addAttribute("pageTitle", "Register");
         
-        System.out.println("=== Register POST request ===");
-        System.out.println("Has errors: " + result.hasErrors());
-        System.out.println("Error count: " + result.getErrorCount());
+        log.debug("Register request: errors={}", result.getErrorCount());
         
         if (result.hasErrors()) {
-            System.out.println("Validation errors: " + result.getAllErrors());
+            log.debug("Register validation failed: {}", result.getAllErrors());
             model.addAttribute("error", "Please fix the validation errors below.");
             return "auth/register";
         }
@@ -53,7 +55,7 @@ public class AuthController {
             redirectAttributes.addFlashAttribute("success", "Registration successful! Please login.");
             return "redirect:/login";
         } catch (RuntimeException e) {
-            System.out.println("Registration error: " + e.getMessage());
+            log.info("Registration rejected: {}", e.getMessage());
             model.addAttribute("error", e.getMessage());
             return "auth/register";
         }
@@ -1,7 +1,12 @@
 package com.vehiclereg.controller;
 
 import com.vehiclereg.entity.ContactMessage;
-import com.vehiclereg.repository.ContactMessageRepository;
+import com.vehiclereg.service.ContactMessageQueue;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -17,10 +22,14 @@ import jakarta.validation.Valid;
 @RequestMapping("/contact")
 public class ContactController {
 
-    private final ContactMessageRepository contactMessageRepository;
+    private static final Logger log = LoggerFactory.getLogger(ContactController.class);
 
-    public ContactController(ContactMessageRepository contactMessageRepository) {
-        this.contactMessageRepository = contactMessageRepository;
+    private static final String RETRY_AFTER_SECONDS = "30";
+
+    private final ContactMessageQueue contactMessageQueue;
+
+    public ContactController(ContactMessageQueue contactMessageQueue) {
+        this.contactMessageQueue = contactMessageQueue;
     }
 
     @GetMapping
@@ -32,25 +41,31 @@ public class ContactController {
 
     @PostMapping
     public String submitContact(@Valid @ModelAttribute("contactMessage") ContactMessage contactMessage, 
-                               BindingResult result, RedirectAttributes redirectAttributes, Model model) {
+                               BindingResult result, RedirectAttributes redirectAttributes, Model model,
+                               HttpServletResponse response) {
         model.addAttribute("pageTitle", "Contact Us");
         
-        System.out.println("=== Contact POST request ===");
-        System.out.println("Has errors: " + result.hasErrors());
-        System.out.println("Error count: " + result.getErrorCount());
+        log.debug("Contact request: errors={}", result.getErrorCount());
         
         if (result.hasErrors()) {
-            System.out.println("Validation errors: " + result.getAllErrors());
+            log.debug("Contact validation failed: {}", result.getAllErrors());
             model.addAttribute("error", "Please fix the validation errors below.");
             return "contact/index";
         }
 
         try {
-            contactMessageRepository.save(contactMessage);
+            // Written to the database in the background; a full queue means we are being flooded
+            if (!contactMessageQueue.offer(contactMessage)) {
+                log.warn("Contact message queue full, rejecting submission");
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+                model.addAttribute("error", "We are receiving too many messages right now. Please try again in a moment.");
+                return "contact/index";
+            }
             redirectAttributes.addFlashAttribute("success", "Thank you for your message! We will get back to you soon.");
             return "redirect:/contact";
         } catch (Exception e) {
-            System.out.println("Contact save error: " + e.getMessage());
+            log.error("Error queueing contact message", e);
             model.addAttribute("error", "An error occurred while sending your message. Please try again.");
             return "contact/index";
         }
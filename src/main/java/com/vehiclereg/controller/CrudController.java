@@ -3,7 +3,10 @@ package com.vehiclereg.controller;
 import com.vehiclereg.entity.Person;
 import com.vehiclereg.entity.Vehicle;
 import com.vehiclereg.repository.PersonRepository;
-import com.vehiclereg.repository.VehicleRepository;
+import com.vehiclereg.service.PersonService;
+import com.vehiclereg.service.VehicleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -17,17 +20,21 @@ import java.util.Optional;
 @RequestMapping("/crud")
 public class CrudController {
 
+    private static final Logger log = LoggerFactory.getLogger(CrudController.class);
+
     private final PersonRepository personRepository;
-    private final VehicleRepository vehicleRepository;
+    private final PersonService personService;
+    private final VehicleService vehicleService;
 
-    public CrudController(PersonRepository personRepository, VehicleRepository vehicleRepository) {
+    public CrudController(PersonRepository personRepository, PersonService personService, VehicleService vehicleService) {
         this.personRepository = personRepository;
-        this.vehicleRepository = vehicleRepository;
+        this.personService = personService;
+        this.vehicleService = vehicleService;
     }
 
     @GetMapping
     public String crud(Model model) {
-        List<Person> persons = personRepository.findAll();
+        List<Person> persons = personService.findAll();
         model.addAttribute("pageTitle", "Person Management - CRUD");
         model.addAttribute("persons", persons);
         return "crud/index";
@@ -47,31 +54,28 @@ public class CrudController {
         model.addAttribute("pageTitle", "Add New Person");
         model.addAttribute("action", "Add");
         
-        System.out.println("=== Add Person POST request ===");
-        System.out.println("Person data: " + person.getName() + ", " + person.getRegnumber() + ", " + person.getHeight());
-        System.out.println("Has errors: " + result.hasErrors());
-        System.out.println("Error count: " + result.getErrorCount());
+        log.debug("Add person request: name={}, regnumber={}, height={}, errors={}",
+            person.getName(), person.getRegnumber(), person.getHeight(), result.getErrorCount());
         
         if (result.hasErrors()) {
-            System.out.println("Validation errors: " + result.getAllErrors());
+            log.debug("Add person validation failed: {}", result.getAllErrors());
             model.addAttribute("error", "Please fix the validation errors below.");
             return "crud/form";
         }
 
         if (personRepository.existsByRegnumber(person.getRegnumber())) {
-            System.out.println("Registration number already exists: " + person.getRegnumber());
+            log.info("Add person rejected, registration number already exists: {}", person.getRegnumber());
             model.addAttribute("error", "Registration number already exists!");
             return "crud/form";
         }
 
         try {
             Person savedPerson = personRepository.save(person);
-            System.out.println("Person saved successfully with ID: " + savedPerson.getId());
+            log.info("Person saved: id={}, regnumber={}", savedPerson.getId(), savedPerson.getRegnumber());
             redirectAttributes.addFlashAttribute("success", "Person added successfully!");
             return "redirect:/crud";
         } catch (Exception e) {
-            System.err.println("Error saving person: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error saving person {}", person.getRegnumber(), e);
             model.addAttribute("error", "An error occurred while saving the person: " + e.getMessage());
             return "crud/form";
         }
@@ -79,7 +83,7 @@ public class CrudController {
 
     @GetMapping("/edit/{id}")
     public String editForm(@PathVariable Long id, Model model) {
-        Optional<Person> person = personRepository.findById(id);
+        Optional<Person> person = personService.findById(id);
         if (person.isEmpty()) {
             return "redirect:/crud";
         }
@@ -141,13 +145,13 @@ public class CrudController {
 
     @GetMapping("/view/{id}")
     public String viewPerson(@PathVariable Long id, Model model) {
-        Optional<Person> person = personRepository.findById(id);
+        Optional<Person> person = personService.findWithPhones(id);
         if (person.isEmpty()) {
             return "redirect:/crud";
         }
         
         // Look up vehicle by matching registration number
-        Optional<Vehicle> vehicle = vehicleRepository.findById(person.get().getRegnumber());
+        Optional<Vehicle> vehicle = vehicleService.findById(person.get().getRegnumber());
         
         model.addAttribute("pageTitle", "View Person");
         model.addAttribute("person", person.get());
@@ -1,49 +1,50 @@
 package com.vehiclereg.controller;
 
+import com.vehiclereg.dto.VehicleWithOwner;
 import com.vehiclereg.entity.Person;
 import com.vehiclereg.entity.Vehicle;
 import com.vehiclereg.entity.Phone;
-import com.vehiclereg.repository.PersonRepository;
-import com.vehiclereg.repository.VehicleRepository;
-import com.vehiclereg.repository.PhoneRepository;
+import com.vehiclereg.service.PersonService;
+import com.vehiclereg.service.VehicleService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import java.util.ArrayList;
 import java.util.List;
 
 @Controller
 @RequestMapping("/database")
 public class DatabaseController {
 
-    private final PersonRepository personRepository;
-    private final VehicleRepository vehicleRepository;
-    private final PhoneRepository phoneRepository;
+    private final PersonService personService;
+    private final VehicleService vehicleService;
 
-    public DatabaseController(PersonRepository personRepository, VehicleRepository vehicleRepository, PhoneRepository phoneRepository) {
-        this.personRepository = personRepository;
-        this.vehicleRepository = vehicleRepository;
-        this.phoneRepository = phoneRepository;
+    public DatabaseController(PersonService personService, VehicleService vehicleService) {
+        this.personService = personService;
+        this.vehicleService = vehicleService;
     }
 
     @GetMapping
     public String database(Model model) {
-        List<Person> persons = personRepository.findAll();
-        List<Vehicle> vehicles = vehicleRepository.findAll();
-        List<Phone> phones = phoneRepository.findAll();
+        // Three set-based queries regardless of table size: persons with their phones,
+        // vehicles joined to owners, and phones with their owning person
+        List<Person> persons = personService.findAllWithPhones();
+        List<VehicleWithOwner> vehicleRows = vehicleService.findAllWithOwners();
+        List<Phone> phones = personService.findAllPhonesWithPerson();
 
         // Create maps for looking up vehicles and owners
+        List<Vehicle> vehicles = new ArrayList<>(vehicleRows.size());
         java.util.Map<String, Vehicle> personVehicles = new java.util.HashMap<>();
         java.util.Map<String, Person> vehicleOwners = new java.util.HashMap<>();
         
-        for (Person person : persons) {
-            vehicleRepository.findById(person.getRegnumber())
-                .ifPresent(vehicle -> personVehicles.put(person.getRegnumber(), vehicle));
-        }
-        
-        for (Vehicle vehicle : vehicles) {
-            personRepository.findByRegnumber(vehicle.getRegnum())
-                .ifPresent(person -> vehicleOwners.put(vehicle.getRegnum(), person));
+        for (VehicleWithOwner row : vehicleRows) {
+            Vehicle vehicle = row.getVehicle();
+            vehicles.add(vehicle);
+            if (row.getOwner() != null) {
+                personVehicles.put(row.getOwner().getRegnumber(), vehicle);
+                vehicleOwners.put(vehicle.getRegnum(), row.getOwner());
+            }
         }
 
         model.addAttribute("pageTitle", "Database");
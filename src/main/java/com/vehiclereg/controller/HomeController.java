@@ -1,9 +1,7 @@
 package com.vehiclereg.controller;
 
-import com.vehiclereg.repository.PersonRepository;
-import com.vehiclereg.repository.VehicleRepository;
-import com.vehiclereg.repository.PhoneRepository;
-import com.vehiclereg.repository.ContactMessageRepository;
+import com.vehiclereg.dto.DashboardStats;
+import com.vehiclereg.service.DashboardStatsService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,17 +10,10 @@ import org.springframework.security.core.Authentication;
 @Controller
 public class HomeController {
 
-    private final PersonRepository personRepository;
-    private final VehicleRepository vehicleRepository;
-    private final PhoneRepository phoneRepository;
-    private final ContactMessageRepository contactMessageRepository;
+    private final DashboardStatsService dashboardStatsService;
 
-    public HomeController(PersonRepository personRepository, VehicleRepository vehicleRepository,
-                         PhoneRepository phoneRepository, ContactMessageRepository contactMessageRepository) {
-        this.personRepository = personRepository;
-        this.vehicleRepository = vehicleRepository;
-        this.phoneRepository = phoneRepository;
-        this.contactMessageRepository = contactMessageRepository;
+    public HomeController(DashboardStatsService dashboardStatsService) {
+        this.dashboardStatsService = dashboardStatsService;
     }
 
     @GetMapping({"/", "/home"})
@@ -30,10 +21,7 @@ public class HomeController {
         model.addAttribute("pageTitle", "Vehicle Registration System");
         
         // Add statistics data for the homepage
-        model.addAttribute("totalPersons", personRepository.count());
-        model.addAttribute("totalVehicles", vehicleRepository.count());
-        model.addAttribute("totalPhones", phoneRepository.count());
-        model.addAttribute("totalMessages", contactMessageRepository.count());
+        addStatistics(model);
         
         if (authentication != null && authentication.isAuthenticated()) {
             model.addAttribute("username", authentication.getName());
@@ -46,10 +34,7 @@ public class HomeController {
         model.addAttribute("pageTitle", "Test Page");
         
         // Add statistics data for testing
-        model.addAttribute("totalPersons", personRepository.count());
-        model.addAttribute("totalVehicles", vehicleRepository.count());
-        model.addAttribute("totalPhones", phoneRepository.count());
-        model.addAttribute("totalMessages", contactMessageRepository.count());
+        addStatistics(model);
         
         return "index-test";
     }
@@ -59,4 +44,12 @@ public class HomeController {
         model.addAttribute("pageTitle", "About Us");
         return "about";
     }
+
+    private void addStatistics(Model model) {
+        DashboardStats stats = dashboardStatsService.getStats();
+        model.addAttribute("totalPersons", stats.getTotalPersons());
+        model.addAttribute("totalVehicles", stats.getTotalVehicles());
+        model.addAttribute("totalPhones", stats.getTotalPhones());
+        model.addAttribute("totalMessages", stats.getTotalMessages());
+    }
 }
@@ -0,0 +1,42 @@
+package com.vehiclereg.controller;
+
+import com.vehiclereg.dto.ImportResult;
+import com.vehiclereg.service.BulkImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private final BulkImportService bulkImportService;
+
+    public ImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    @PostMapping(value = "/persons", consumes = {"text/csv", "application/json", "application/x-ndjson"})
+    public ResponseEntity<ImportResult> importPersons(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                      InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importPersons(body, contentType));
+    }
+
+    @PostMapping(value = "/vehicles", consumes = {"text/csv", "application/json", "application/x-ndjson"})
+    public ResponseEntity<ImportResult> importVehicles(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                       InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importVehicles(body, contentType));
+    }
+
+    @PostMapping(value = "/phones", consumes = {"text/csv", "application/json", "application/x-ndjson"})
+    public ResponseEntity<ImportResult> importPhones(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                     InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importPhones(body, contentType));
+    }
+}
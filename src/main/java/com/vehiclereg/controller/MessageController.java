@@ -1,12 +1,20 @@
 package com.vehiclereg.controller;
 
-import com.vehiclereg.entity.ContactMessage;
+import com.vehiclereg.dto.MessageSummary;
 import com.vehiclereg.repository.ContactMessageRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Controller
@@ -14,6 +22,8 @@ import java.util.List;
 @PreAuthorize("hasRole('REGISTERED') or hasRole('ADMIN')")
 public class MessageController {
 
+    private static final int PAGE_SIZE = 20;
+
     private final ContactMessageRepository contactMessageRepository;
 
     public MessageController(ContactMessageRepository contactMessageRepository) {
@@ -22,12 +32,43 @@ public class MessageController {
 
     @GetMapping
     public String messages(Model model) {
-        List<ContactMessage> messages = contactMessageRepository.findAllByOrderBySentAtDesc();
+        List<MessageSummary> messages = addPage(model, null, null);
         
         model.addAttribute("pageTitle", "Messages");
-        model.addAttribute("messages", messages);
-        model.addAttribute("totalMessages", messages.size());
+        model.addAttribute("totalMessages", contactMessageRepository.count());
+        model.addAttribute("oldestSentAt", messages.isEmpty() ? null : contactMessageRepository.findOldestSentAt());
         
         return "messages/index";
     }
+
+    // Next page of the inbox, rendered as list items only (appended by "Load more")
+    @GetMapping("/page")
+    public String page(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                       @RequestParam Long beforeId, Model model) {
+        addPage(model, before, beforeId);
+        return "messages/index :: messageItems";
+    }
+
+    // Message bodies are only read when a message is expanded
+    @GetMapping(value = "/{id}/body", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public ResponseEntity<String> body(@PathVariable Long id) {
+        return contactMessageRepository.findMessageBodyById(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    private List<MessageSummary> addPage(Model model, LocalDateTime before, Long beforeId) {
+        List<MessageSummary> messages = before == null
+            ? contactMessageRepository.findLatestSummaries(Limit.of(PAGE_SIZE))
+            : contactMessageRepository.findSummariesBefore(before, beforeId, Limit.of(PAGE_SIZE));
+        
+        model.addAttribute("messages", messages);
+        if (messages.size() == PAGE_SIZE) {
+            MessageSummary last = messages.get(messages.size() - 1);
+            model.addAttribute("nextBefore", last.getSentAt());
+            model.addAttribute("nextBeforeId", last.getId());
+        }
+        return messages;
+    }
 }
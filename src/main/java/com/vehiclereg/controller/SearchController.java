@@ -0,0 +1,46 @@
+package com.vehiclereg.controller;
+
+import com.vehiclereg.dto.SearchResult;
+import com.vehiclereg.service.PersonSearchIndex;
+import com.vehiclereg.service.TableVersionService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final PersonSearchIndex personSearchIndex;
+    private final TableVersionService tableVersionService;
+
+    public SearchController(PersonSearchIndex personSearchIndex, TableVersionService tableVersionService) {
+        this.personSearchIndex = personSearchIndex;
+        this.tableVersionService = tableVersionService;
+    }
+
+    // Searches person names, registration numbers and phone numbers
+    @GetMapping
+    public ResponseEntity<SearchResult> search(@RequestParam String q,
+                                               @RequestParam(defaultValue = "false") boolean fuzzy,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(required = false) Integer size,
+                                               WebRequest request) {
+        // The index only changes with persons and phones, so their versions validate any result page
+        if (request.checkNotModified(tableVersionService.etag(TableVersionService.PERSONS, TableVersionService.PHONES),
+                tableVersionService.lastModified(TableVersionService.PERSONS, TableVersionService.PHONES))) {
+            return null;
+        }
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(personSearchIndex.search(q, fuzzy, Math.max(page, 0), pageSize));
+    }
+}
@@ -0,0 +1,25 @@
+package com.vehiclereg.controller;
+
+import com.vehiclereg.dto.TokenResponse;
+import com.vehiclereg.service.ApiTokenService;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth")
+public class TokenController {
+
+    private final ApiTokenService apiTokenService;
+
+    public TokenController(ApiTokenService apiTokenService) {
+        this.apiTokenService = apiTokenService;
+    }
+
+    // Exchanges HTTP Basic credentials for a bearer token used on subsequent /api calls
+    @PostMapping("/token")
+    public TokenResponse issueToken(Authentication authentication) {
+        return new TokenResponse(apiTokenService.issue(authentication), apiTokenService.getTtl().toSeconds());
+    }
+}
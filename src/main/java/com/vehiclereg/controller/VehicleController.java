@@ -1,15 +1,21 @@
 package com.vehiclereg.controller;
 
+import com.vehiclereg.dto.VehicleWithOwner;
 import com.vehiclereg.entity.Person;
 import com.vehiclereg.entity.Vehicle;
 import com.vehiclereg.repository.PersonRepository;
 import com.vehiclereg.repository.VehicleRepository;
+import com.vehiclereg.service.PersonService;
+import com.vehiclereg.service.VehicleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import jakarta.validation.Valid;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,23 +23,33 @@ import java.util.Optional;
 @RequestMapping("/vehicles")
 public class VehicleController {
 
+    private static final Logger log = LoggerFactory.getLogger(VehicleController.class);
+
     private final VehicleRepository vehicleRepository;
     private final PersonRepository personRepository;
+    private final VehicleService vehicleService;
+    private final PersonService personService;
 
-    public VehicleController(VehicleRepository vehicleRepository, PersonRepository personRepository) {
+    public VehicleController(VehicleRepository vehicleRepository, PersonRepository personRepository,
+                             VehicleService vehicleService, PersonService personService) {
         this.vehicleRepository = vehicleRepository;
         this.personRepository = personRepository;
+        this.vehicleService = vehicleService;
+        this.personService = personService;
     }
 
     @GetMapping
     public String vehicles(Model model) {
-        List<Vehicle> vehicles = vehicleRepository.findAll();
+        List<VehicleWithOwner> rows = vehicleService.findAllWithOwners();
         
         // Create a map of regnum -> owner for easy lookup in template
+        List<Vehicle> vehicles = new ArrayList<>(rows.size());
         java.util.Map<String, Person> vehicleOwners = new java.util.HashMap<>();
-        for (Vehicle vehicle : vehicles) {
-            personRepository.findByRegnumber(vehicle.getRegnum())
-                .ifPresent(person -> vehicleOwners.put(vehicle.getRegnum(), person));
+        for (VehicleWithOwner row : rows) {
+            vehicles.add(row.getVehicle());
+            if (row.getOwner() != null) {
+                vehicleOwners.put(row.getVehicle().getRegnum(), row.getOwner());
+            }
         }
         
         model.addAttribute("pageTitle", "Vehicle Management - CRUD");
@@ -56,30 +72,28 @@ public class VehicleController {
         model.addAttribute("pageTitle", "Add New Vehicle");
         model.addAttribute("action", "Add");
         
-        System.out.println("=== Add Vehicle POST request ===");
-        System.out.println("Vehicle data: " + vehicle.getRegnum() + ", " + vehicle.getBrand() + ", " + vehicle.getColor());
-        System.out.println("Has errors: " + result.hasErrors());
+        log.debug("Add vehicle request: regnum={}, brand={}, color={}, errors={}",
+            vehicle.getRegnum(), vehicle.getBrand(), vehicle.getColor(), result.getErrorCount());
         
         if (result.hasErrors()) {
-            System.out.println("Validation errors: " + result.getAllErrors());
+            log.debug("Add vehicle validation failed: {}", result.getAllErrors());
             model.addAttribute("error", "Please fix the validation errors below.");
             return "vehicles/form";
         }
 
         if (vehicleRepository.existsById(vehicle.getRegnum())) {
-            System.out.println("Registration number already exists: " + vehicle.getRegnum());
+            log.info("Add vehicle rejected, registration number already exists: {}", vehicle.getRegnum());
             model.addAttribute("error", "Registration number already exists!");
             return "vehicles/form";
         }
 
         try {
             Vehicle savedVehicle = vehicleRepository.save(vehicle);
-            System.out.println("Vehicle saved successfully: " + savedVehicle.getRegnum());
+            log.info("Vehicle saved: regnum={}", savedVehicle.getRegnum());
             redirectAttributes.addFlashAttribute("success", "Vehicle added successfully!");
             return "redirect:/vehicles";
         } catch (Exception e) {
-            System.err.println("Error saving vehicle: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error saving vehicle {}", vehicle.getRegnum(), e);
             model.addAttribute("error", "An error occurred while saving the vehicle: " + e.getMessage());
             return "vehicles/form";
         }
@@ -87,7 +101,7 @@ public class VehicleController {
 
     @GetMapping("/edit/{regnum}")
     public String editForm(@PathVariable String regnum, Model model) {
-        Optional<Vehicle> vehicle = vehicleRepository.findById(regnum);
+        Optional<Vehicle> vehicle = vehicleService.findById(regnum);
         if (vehicle.isEmpty()) {
             return "redirect:/vehicles";
         }
@@ -104,11 +118,11 @@ public class VehicleController {
         model.addAttribute("pageTitle", "Edit Vehicle");
         model.addAttribute("action", "Edit");
         
-        System.out.println("=== Edit Vehicle POST request ===");
-        System.out.println("Vehicle data: " + vehicle.getRegnum() + ", " + vehicle.getBrand() + ", " + vehicle.getColor());
+        log.debug("Edit vehicle request: regnum={}, brand={}, color={}, errors={}",
+            regnum, vehicle.getBrand(), vehicle.getColor(), result.getErrorCount());
         
         if (result.hasErrors()) {
-            System.out.println("Validation errors: " + result.getAllErrors());
+            log.debug("Edit vehicle validation failed: {}", result.getAllErrors());
             model.addAttribute("error", "Please fix the validation errors below.");
             return "vehicles/form";
         }
@@ -120,12 +134,11 @@ public class VehicleController {
         try {
             vehicle.setRegnum(regnum);
             vehicleRepository.save(vehicle);
-            System.out.println("Vehicle updated successfully: " + regnum);
+            log.info("Vehicle updated: regnum={}", regnum);
             redirectAttributes.addFlashAttribute("success", "Vehicle updated successfully!");
             return "redirect:/vehicles";
         } catch (Exception e) {
-            System.err.println("Error updating vehicle: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error updating vehicle {}", regnum, e);
             model.addAttribute("error", "An error occurred while updating the vehicle: " + e.getMessage());
             return "vehicles/form";
         }
@@ -134,14 +147,13 @@ public class VehicleController {
     @PostMapping("/delete/{regnum}")
     public String deleteVehicle(@PathVariable String regnum, RedirectAttributes redirectAttributes) {
         try {
-            System.out.println("=== Delete Vehicle POST request ===");
-            System.out.println("Registration number: " + regnum);
+            log.debug("Delete vehicle request: regnum={}", regnum);
             
             if (vehicleRepository.existsById(regnum)) {
                 // First, check if any person owns this vehicle
                 Optional<Person> owner = personRepository.findByRegnumber(regnum);
                 if (owner.isPresent()) {
-                    System.out.println("Found owner for vehicle: " + owner.get().getName());
+                    log.debug("Vehicle {} is owned by person {}", regnum, owner.get().getId());
                     // The relationship is managed by JPA via the join column
                     // We need to delete the Person's reference first or delete fails
                     // Since we want to keep the person, we cannot use cascade
@@ -153,15 +165,14 @@ public class VehicleController {
                 }
                 
                 vehicleRepository.deleteById(regnum);
-                System.out.println("Vehicle deleted successfully: " + regnum);
+                log.info("Vehicle deleted: regnum={}", regnum);
                 redirectAttributes.addFlashAttribute("success", "Vehicle deleted successfully!");
             } else {
-                System.out.println("Vehicle not found: " + regnum);
+                log.info("Delete vehicle rejected, not found: {}", regnum);
                 redirectAttributes.addFlashAttribute("error", "Vehicle not found!");
             }
         } catch (Exception e) {
-            System.err.println("Error deleting vehicle: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error deleting vehicle {}", regnum, e);
             redirectAttributes.addFlashAttribute("error", 
                 "An error occurred while deleting the vehicle: " + e.getMessage());
         }
@@ -171,13 +182,13 @@ public class VehicleController {
 
     @GetMapping("/view/{regnum}")
     public String viewVehicle(@PathVariable String regnum, Model model) {
-        Optional<Vehicle> vehicle = vehicleRepository.findById(regnum);
+        Optional<Vehicle> vehicle = vehicleService.findById(regnum);
         if (vehicle.isEmpty()) {
             return "redirect:/vehicles";
         }
         
-        // Find the owner by matching registration number
-        Optional<Person> owner = personRepository.findByRegnumber(regnum);
+        // Find the owner by matching registration number, with the phones the page lists
+        Optional<Person> owner = personService.findOwnerWithPhones(regnum);
         
         model.addAttribute("pageTitle", "View Vehicle");
         model.addAttribute("vehicle", vehicle.get());
@@ -0,0 +1,35 @@
+package com.vehiclereg.dto;
+
+import java.time.Instant;
+
+public class DashboardStats {
+    
+    private final long totalPersons;
+    private final long totalVehicles;
+    private final long totalPhones;
+    private final long totalMessages;
+    private final long totalUsers;
+    private final Instant loadedAt;
+    
+    public DashboardStats(long totalPersons, long totalVehicles, long totalPhones,
+                          long totalMessages, long totalUsers, Instant loadedAt) {
+        this.totalPersons = totalPersons;
+        this.totalVehicles = totalVehicles;
+        this.totalPhones = totalPhones;
+        this.totalMessages = totalMessages;
+        this.totalUsers = totalUsers;
+        this.loadedAt = loadedAt;
+    }
+    
+    public long getTotalPersons() { return totalPersons; }
+    
+    public long getTotalVehicles() { return totalVehicles; }
+    
+    public long getTotalPhones() { return totalPhones; }
+    
+    public long getTotalMessages() { return totalMessages; }
+    
+    public long getTotalUsers() { return totalUsers; }
+    
+    public Instant getLoadedAt() { return loadedAt; }
+}
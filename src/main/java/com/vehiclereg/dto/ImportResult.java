@@ -0,0 +1,52 @@
+package com.vehiclereg.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+    
+    // Keep the response bounded even when most rows of a huge file are rejected
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private final List<RowError> errors = new ArrayList<>();
+    
+    public void recordRow() { totalRows++; }
+    
+    public void recordImported(int count) { imported += count; }
+    
+    public void recordError(int row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+    
+    // Getters
+    public int getTotalRows() { return totalRows; }
+    
+    public int getImported() { return imported; }
+    
+    public int getFailed() { return failed; }
+    
+    public List<RowError> getErrors() { return errors; }
+    
+    public boolean isErrorsTruncated() { return failed > errors.size(); }
+    
+    public static class RowError {
+        
+        private final int row;
+        private final String message;
+        
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+        
+        public int getRow() { return row; }
+        
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,31 @@
+package com.vehiclereg.dto;
+
+import java.time.LocalDateTime;
+
+// Inbox list row: everything but the TEXT body, which is loaded on demand
+public class MessageSummary {
+    
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String subject;
+    private final LocalDateTime sentAt;
+    
+    public MessageSummary(Long id, String name, String email, String subject, LocalDateTime sentAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.subject = subject;
+        this.sentAt = sentAt;
+    }
+    
+    public Long getId() { return id; }
+    
+    public String getName() { return name; }
+    
+    public String getEmail() { return email; }
+    
+    public String getSubject() { return subject; }
+    
+    public LocalDateTime getSentAt() { return sentAt; }
+}
@@ -0,0 +1,30 @@
+package com.vehiclereg.dto;
+
+import java.util.List;
+
+public class PersonSearchHit {
+    
+    private final Long id;
+    private final String name;
+    private final String regnumber;
+    private final List<String> phones;
+    private final int score;
+    
+    public PersonSearchHit(Long id, String name, String regnumber, List<String> phones, int score) {
+        this.id = id;
+        this.name = name;
+        this.regnumber = regnumber;
+        this.phones = phones;
+        this.score = score;
+    }
+    
+    public Long getId() { return id; }
+    
+    public String getName() { return name; }
+    
+    public String getRegnumber() { return regnumber; }
+    
+    public List<String> getPhones() { return phones; }
+    
+    public int getScore() { return score; }
+}
@@ -0,0 +1,30 @@
+package com.vehiclereg.dto;
+
+import java.util.List;
+
+public class SearchResult {
+    
+    private final String query;
+    private final int total;
+    private final int page;
+    private final int size;
+    private final List<PersonSearchHit> hits;
+    
+    public SearchResult(String query, int total, int page, int size, List<PersonSearchHit> hits) {
+        this.query = query;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.hits = hits;
+    }
+    
+    public String getQuery() { return query; }
+    
+    public int getTotal() { return total; }
+    
+    public int getPage() { return page; }
+    
+    public int getSize() { return size; }
+    
+    public List<PersonSearchHit> getHits() { return hits; }
+}
@@ -0,0 +1,19 @@
+package com.vehiclereg.dto;
+
+public class TokenResponse {
+    
+    private final String accessToken;
+    private final String tokenType = "Bearer";
+    private final long expiresIn;
+    
+    public TokenResponse(String accessToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+    }
+    
+    public String getAccessToken() { return accessToken; }
+    
+    public String getTokenType() { return tokenType; }
+    
+    public long getExpiresIn() { return expiresIn; }
+}
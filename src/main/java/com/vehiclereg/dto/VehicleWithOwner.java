@@ -0,0 +1,19 @@
+package com.vehiclereg.dto;
+
+import com.vehiclereg.entity.Person;
+import com.vehiclereg.entity.Vehicle;
+
+public class VehicleWithOwner {
+    
+    private final Vehicle vehicle;
+    private final Person owner;
+    
+    public VehicleWithOwner(Vehicle vehicle, Person owner) {
+        this.vehicle = vehicle;
+        this.owner = owner;
+    }
+    
+    public Vehicle getVehicle() { return vehicle; }
+    
+    public Person getOwner() { return owner; }
+}
@@ -4,10 +4,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 @Entity
 @Table(name = "persons")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "persons")
+@EntityListeners(PersonChangeListener.class)
 public class Person {
     
     @Id
@@ -27,6 +32,7 @@ public class Person {
     @Column(nullable = false)
     private Integer height;
     
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "person-phones")
     @OneToMany(mappedBy = "person", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Phone> phones;
     
@@ -0,0 +1,28 @@
+package com.vehiclereg.entity;
+
+import com.vehiclereg.event.PersonChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Instantiated by Hibernate through Spring's bean container, so the publisher is injected
+public class PersonChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PersonChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Person person) {
+        eventPublisher.publishEvent(new PersonChangedEvent(person.getId(), person.getName(), person.getRegnumber(), false));
+    }
+
+    @PostRemove
+    public void onDelete(Person person) {
+        eventPublisher.publishEvent(new PersonChangedEvent(person.getId(), person.getName(), person.getRegnumber(), true));
+    }
+}
@@ -4,9 +4,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "phones")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "phones")
+@EntityListeners(PhoneChangeListener.class)
 public class Phone {
     
     @Id
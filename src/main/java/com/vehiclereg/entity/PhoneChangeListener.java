@@ -0,0 +1,28 @@
+package com.vehiclereg.entity;
+
+import com.vehiclereg.event.PhoneChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Instantiated by Hibernate through Spring's bean container, so the publisher is injected
+public class PhoneChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PhoneChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Phone phone) {
+        eventPublisher.publishEvent(new PhoneChangedEvent(phone.getId(), phone.getPersonid(), phone.getNumber(), false));
+    }
+
+    @PostRemove
+    public void onDelete(Phone phone) {
+        eventPublisher.publishEvent(new PhoneChangedEvent(phone.getId(), phone.getPersonid(), phone.getNumber(), true));
+    }
+}
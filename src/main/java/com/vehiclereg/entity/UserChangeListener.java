@@ -0,0 +1,22 @@
+package com.vehiclereg.entity;
+
+import com.vehiclereg.event.UserChangedEvent;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Instantiated by Hibernate through Spring's bean container, so the publisher is injected
+public class UserChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+    }
+}
@@ -2,9 +2,14 @@ package com.vehiclereg.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "vehicles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vehicles")
+@EntityListeners(VehicleChangeListener.class)
 public class Vehicle {
     
     @Id
@@ -19,6 +24,14 @@ public class Vehicle {
     @Column(length = 20, nullable = false)
     private String color;
     
+    // Brand and color as last read from or written to the database, so
+    // VehicleChangeListener can tell what an update replaced
+    @Transient
+    private String loadedBrand;
+    
+    @Transient
+    private String loadedColor;
+    
     // Note: Owner relationship removed to avoid bidirectional mapping issues
     // Person owns vehicle via matching regnumber, but no JPA relationship
     
@@ -40,4 +53,17 @@ public class Vehicle {
     
     public String getColor() { return color; }
     public void setColor(String color) { this.color = color; }
+    
+    // Runs after VehicleChangeListener's callbacks (entity listeners are invoked first)
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberLoadedState() {
+        this.loadedBrand = brand;
+        this.loadedColor = color;
+    }
+    
+    String loadedBrand() { return loadedBrand; }
+    
+    String loadedColor() { return loadedColor; }
 }
@@ -0,0 +1,36 @@
+package com.vehiclereg.entity;
+
+import com.vehiclereg.event.VehicleChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Instantiated by Hibernate through Spring's bean container, so the publisher is injected
+public class VehicleChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public VehicleChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onInsert(Vehicle vehicle) {
+        eventPublisher.publishEvent(new VehicleChangedEvent(null, null, vehicle.getBrand(), vehicle.getColor()));
+    }
+
+    @PostUpdate
+    public void onUpdate(Vehicle vehicle) {
+        if (!vehicle.getBrand().equals(vehicle.loadedBrand()) || !vehicle.getColor().equals(vehicle.loadedColor())) {
+            eventPublisher.publishEvent(new VehicleChangedEvent(
+                vehicle.loadedBrand(), vehicle.loadedColor(), vehicle.getBrand(), vehicle.getColor()));
+        }
+    }
+
+    @PostRemove
+    public void onDelete(Vehicle vehicle) {
+        eventPublisher.publishEvent(new VehicleChangedEvent(
+            vehicle.loadedBrand(), vehicle.loadedColor(), null, null));
+    }
+}
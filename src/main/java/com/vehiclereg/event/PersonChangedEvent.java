@@ -0,0 +1,25 @@
+package com.vehiclereg.event;
+
+// Published when a person row is inserted, updated or deleted
+public class PersonChangedEvent {
+    
+    private final Long id;
+    private final String name;
+    private final String regnumber;
+    private final boolean deleted;
+    
+    public PersonChangedEvent(Long id, String name, String regnumber, boolean deleted) {
+        this.id = id;
+        this.name = name;
+        this.regnumber = regnumber;
+        this.deleted = deleted;
+    }
+    
+    public Long getId() { return id; }
+    
+    public String getName() { return name; }
+    
+    public String getRegnumber() { return regnumber; }
+    
+    public boolean isDeleted() { return deleted; }
+}
@@ -0,0 +1,25 @@
+package com.vehiclereg.event;
+
+// Published when a phone row is inserted, updated or deleted
+public class PhoneChangedEvent {
+    
+    private final Long id;
+    private final Long personid;
+    private final String number;
+    private final boolean deleted;
+    
+    public PhoneChangedEvent(Long id, Long personid, String number, boolean deleted) {
+        this.id = id;
+        this.personid = personid;
+        this.number = number;
+        this.deleted = deleted;
+    }
+    
+    public Long getId() { return id; }
+    
+    public Long getPersonid() { return personid; }
+    
+    public String getNumber() { return number; }
+    
+    public boolean isDeleted() { return deleted; }
+}
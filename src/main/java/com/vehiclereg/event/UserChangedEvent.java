@@ -0,0 +1,13 @@
+package com.vehiclereg.event;
+
+// Published when a user row is inserted, updated (password, role, enabled flag) or deleted
+public class UserChangedEvent {
+    
+    private final String username;
+    
+    public UserChangedEvent(String username) {
+        this.username = username;
+    }
+    
+    public String getUsername() { return username; }
+}
@@ -0,0 +1,30 @@
+package com.vehiclereg.event;
+
+// Published when a vehicle row is inserted, updated or deleted. The "old" side is null for
+// inserts and the "new" side is null for deletes, so consumers can apply a simple -1/+1 delta.
+public class VehicleChangedEvent {
+    
+    private final String oldBrand;
+    private final String oldColor;
+    private final String newBrand;
+    private final String newColor;
+    
+    public VehicleChangedEvent(String oldBrand, String oldColor, String newBrand, String newColor) {
+        this.oldBrand = oldBrand;
+        this.oldColor = oldColor;
+        this.newBrand = newBrand;
+        this.newColor = newColor;
+    }
+    
+    public String getOldBrand() { return oldBrand; }
+    
+    public String getOldColor() { return oldColor; }
+    
+    public String getNewBrand() { return newBrand; }
+    
+    public String getNewColor() { return newColor; }
+    
+    public boolean isInsert() { return oldBrand == null && newBrand != null; }
+    
+    public boolean isDelete() { return oldBrand != null && newBrand == null; }
+}
@@ -1,14 +1,34 @@
 package com.vehiclereg.repository;
 
+import com.vehiclereg.dto.MessageSummary;
 import com.vehiclereg.entity.ContactMessage;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContactMessageRepository extends JpaRepository<ContactMessage, Long> {
     
-    List<ContactMessage> findAllByOrderBySentAtDesc();
+    // Inbox pages: newest first, keyed on (sent_at, id) so ties on sent_at never skip or repeat rows
+    @Query("SELECT new com.vehiclereg.dto.MessageSummary(m.id, m.name, m.email, m.subject, m.sentAt) " +
+           "FROM ContactMessage m ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageSummary> findLatestSummaries(Limit limit);
+    
+    // Same condition as (sent_at, id) < (?1, ?2), led by a plain range so idx_contact_messages_sent_at is seeked
+    @Query("SELECT new com.vehiclereg.dto.MessageSummary(m.id, m.name, m.email, m.subject, m.sentAt) " +
+           "FROM ContactMessage m WHERE m.sentAt <= ?1 AND (m.sentAt < ?1 OR m.id < ?2) " +
+           "ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageSummary> findSummariesBefore(LocalDateTime sentAt, Long id, Limit limit);
+    
+    @Query("SELECT m.message FROM ContactMessage m WHERE m.id = ?1")
+    Optional<String> findMessageBodyById(Long id);
+    
+    @Query("SELECT MIN(m.sentAt) FROM ContactMessage m")
+    LocalDateTime findOldestSentAt();
     
     List<ContactMessage> findByEmailOrderBySentAtDesc(String email);
 }
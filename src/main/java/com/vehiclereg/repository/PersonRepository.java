@@ -1,15 +1,28 @@
 package com.vehiclereg.repository;
 
+import com.vehiclereg.config.CacheConfig;
 import com.vehiclereg.entity.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PersonRepository extends JpaRepository<Person, Long> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "regnumber-lookups")
+    })
     Optional<Person> findByRegnumber(String regnumber);
     
     List<Person> findByNameContainingIgnoreCase(String name);
@@ -20,5 +33,67 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
     @Query("SELECT COUNT(p) FROM Person p")
     Long countAllPersons();
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "regnumber-lookups")
+    })
     boolean existsByRegnumber(String regnumber);
+    
+    @Query("SELECT DISTINCT p FROM Person p LEFT JOIN FETCH p.phones ORDER BY p.id")
+    List<Person> findAllWithPhones();
+    
+    // Fetch plans for PersonService: the person comes with its phones in the same query
+    @EntityGraph(attributePaths = "phones")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Person> findWithPhonesById(Long id);
+    
+    @EntityGraph(attributePaths = "phones")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Person> findWithPhonesByRegnumber(String regnumber);
+    
+    // Keyset page in two steps, so the limit applies in SQL rather than to the joined phone rows
+    @Query("SELECT p.id FROM Person p WHERE p.id > ?1 ORDER BY p.id")
+    List<Long> findIdsAfter(Long id, Limit limit);
+    
+    // Bulk reads (API pages, NDJSON export) are not worth keeping in the second-level cache
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT DISTINCT p FROM Person p LEFT JOIN FETCH p.phones WHERE p.id IN ?1 ORDER BY p.id")
+    List<Person> findWithPhonesByIdIn(Collection<Long> ids);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM Person p ORDER BY p.id")
+    Stream<Person> streamAll();
+    
+    @Query("SELECT p.regnumber FROM Person p WHERE p.regnumber IN ?1")
+    List<String> findExistingRegnumbers(Collection<String> regnumbers);
+    
+    @Query("SELECT p.id FROM Person p WHERE p.id IN ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
+    
+    @Query("SELECT p.regnumber, p.id FROM Person p WHERE p.regnumber IN ?1")
+    List<Object[]> findIdsByRegnumbers(Collection<String> regnumbers);
+    
+    // Writes invalidate the cached listings built from this table
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.VEHICLE_LISTING, CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
+    <S extends Person> S save(S entity);
+    
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.VEHICLE_LISTING, CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
+    <S extends Person> List<S> saveAll(Iterable<S> entities);
+    
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.VEHICLE_LISTING, CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
+    void delete(Person entity);
+    
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.VEHICLE_LISTING, CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
+    void deleteById(Long id);
 }
@@ -1,10 +1,16 @@
 package com.vehiclereg.repository;
 
+import com.vehiclereg.config.CacheConfig;
 import com.vehiclereg.entity.Phone;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PhoneRepository extends JpaRepository<Phone, Long> {
@@ -16,5 +22,34 @@ public interface PhoneRepository extends JpaRepository<Phone, Long> {
     @Query("SELECT COUNT(p) FROM Phone p WHERE p.personid = ?1")
     Long countPhonesByPersonId(Long personid);
     
+    @CacheEvict(cacheNames = {CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
     void deleteByPersonid(Long personid);
+    
+    @Query("SELECT ph FROM Phone ph LEFT JOIN FETCH ph.person ORDER BY ph.id")
+    List<Phone> findAllWithPerson();
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT ph FROM Phone ph ORDER BY ph.id")
+    Stream<Phone> streamAll();
+    
+    // Writes invalidate the cached listings built from this table
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
+    <S extends Phone> S save(S entity);
+    
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
+    <S extends Phone> List<S> saveAll(Iterable<S> entities);
+    
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
+    void delete(Phone entity);
+    
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.PERSON_OVERVIEW, CacheConfig.PHONE_OVERVIEW}, allEntries = true)
+    void deleteById(Long id);
 }
@@ -1,14 +1,30 @@
 package com.vehiclereg.repository;
 
+import com.vehiclereg.config.CacheConfig;
+import com.vehiclereg.dto.VehicleWithOwner;
 import com.vehiclereg.entity.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, String> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "regnumber-lookups")
+    })
+    @Override
+    boolean existsById(String regnum);
+    
     List<Vehicle> findByBrand(String brand);
     
     List<Vehicle> findByColor(String color);
@@ -20,4 +36,39 @@ public interface VehicleRepository extends JpaRepository<Vehicle, String> {
     
     @Query("SELECT v.color, COUNT(v) FROM Vehicle v GROUP BY v.color")
     List<Object[]> countVehiclesByColor();
+    
+    // Vehicles and owners are linked by regnum = regnumber, fetched in a single query
+    @Query("SELECT new com.vehiclereg.dto.VehicleWithOwner(v, p) FROM Vehicle v " +
+           "LEFT JOIN Person p ON p.regnumber = v.regnum ORDER BY v.regnum")
+    List<VehicleWithOwner> findAllWithOwners();
+    
+    List<Vehicle> findByRegnumGreaterThanOrderByRegnumAsc(String regnum, Limit limit);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT v FROM Vehicle v ORDER BY v.regnum")
+    Stream<Vehicle> streamAll();
+    
+    @Query("SELECT v.regnum FROM Vehicle v WHERE v.regnum IN ?1")
+    List<String> findExistingRegnums(Collection<String> regnums);
+    
+    // Writes invalidate the cached listings built from this table
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.VEHICLE_LISTING, allEntries = true)
+    <S extends Vehicle> S save(S entity);
+    
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.VEHICLE_LISTING, allEntries = true)
+    <S extends Vehicle> List<S> saveAll(Iterable<S> entities);
+    
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.VEHICLE_LISTING, allEntries = true)
+    void delete(Vehicle entity);
+    
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.VEHICLE_LISTING, allEntries = true)
+    void deleteById(String id);
 }
@@ -0,0 +1,121 @@
+package com.vehiclereg.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// Issues and verifies stateless API tokens: base64url(JSON claims) + "." + base64url(HMAC-SHA256).
+// Verification needs only the shared key, so any node can accept a token without a database
+// lookup, BCrypt or a session. Tokens stay valid until they expire; keep the TTL short.
+@Service
+public class ApiTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiTokenService.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    public ApiTokenService(ObjectMapper objectMapper,
+                           @Value("${app.security.token.secret:}") String secret,
+                           @Value("${app.security.token.ttl:15m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.key = new SecretKeySpec(secretBytes(secret), HMAC_ALGORITHM);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(Authentication authentication) {
+        Instant now = Instant.now();
+        ObjectNode claims = objectMapper.createObjectNode();
+        claims.put("sub", authentication.getName());
+        claims.put("iat", now.getEpochSecond());
+        claims.put("exp", now.plus(ttl).getEpochSecond());
+        authentication.getAuthorities().forEach(authority -> claims.withArray("roles").add(authority.getAuthority()));
+
+        try {
+            String payload = encoder.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return payload + "." + encoder.encodeToString(sign(payload));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize token claims", e);
+        }
+    }
+
+    // Returns null for malformed, tampered or expired tokens
+    public Authentication verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+
+        try {
+            byte[] signature = decoder.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return null;
+            }
+
+            JsonNode claims = objectMapper.readTree(decoder.decode(payload));
+            if (claims.path("exp").asLong() <= Instant.now().getEpochSecond() || !claims.hasNonNull("sub")) {
+                return null;
+            }
+
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            claims.path("roles").forEach(role -> authorities.add(new SimpleGrantedAuthority(role.asText())));
+            return UsernamePasswordAuthenticationToken.authenticated(claims.get("sub").asText(), null, authorities);
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("app.security.token.secret is not set; using a random key, so API tokens are only valid on this node until restart");
+            byte[] random = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("app.security.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return bytes;
+    }
+}
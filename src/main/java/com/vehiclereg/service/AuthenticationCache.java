@@ -0,0 +1,93 @@
+package com.vehiclereg.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehiclereg.event.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Successful username/password authentications, so repeat HTTP Basic calls skip the user
+// lookup and BCrypt. Entries are keyed by an HMAC of the credentials under a per-process random
+// key: neither the password nor an offline-crackable hash of it is ever held in memory.
+// The generation counter is bumped on every invalidation, so an authentication that was started
+// against the old user data and finishes after the invalidation is never cached.
+@Service
+public class AuthenticationCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, Authentication> cache;
+    private final SecretKeySpec key;
+    private final AtomicLong generation = new AtomicLong();
+
+    public AuthenticationCache(@Value("${app.security.auth-cache.ttl:5m}") Duration ttl,
+                               @Value("${app.security.auth-cache.max-size:10000}") long maxSize,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "authentication");
+    }
+
+    public Authentication get(String username, String password) {
+        return cache.getIfPresent(cacheKey(username, password));
+    }
+
+    // Read before delegating to the real provider and passed back to put
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String username, String password, Authentication authentication, long expectedGeneration) {
+        String cacheKey = cacheKey(username, password);
+        cache.put(cacheKey, authentication);
+        // Checked after the put: an invalidation racing with it either removes the entry itself
+        // or has already bumped the generation, in which case the entry is removed here
+        if (generation.get() != expectedGeneration) {
+            cache.invalidate(cacheKey);
+        }
+    }
+
+    // Any change to a user (password, role, enabled flag, rename, delete) drops every entry:
+    // user writes are rare, and this also covers entries cached under a previous username
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return HexFormat.of().formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package com.vehiclereg.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehiclereg.dto.ImportResult;
+import com.vehiclereg.entity.Person;
+import com.vehiclereg.entity.Phone;
+import com.vehiclereg.entity.Vehicle;
+import com.vehiclereg.event.PersonChangedEvent;
+import com.vehiclereg.event.PhoneChangedEvent;
+import com.vehiclereg.event.VehicleChangedEvent;
+import com.vehiclereg.repository.PersonRepository;
+import com.vehiclereg.repository.VehicleRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BulkImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final PersonRepository personRepository;
+    private final VehicleRepository vehicleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CacheManagementService cacheManagementService;
+    private final TableVersionService tableVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkImportService(PersonRepository personRepository, VehicleRepository vehicleRepository,
+                             JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             Validator validator, ObjectMapper objectMapper,
+                             CacheManagementService cacheManagementService,
+                             TableVersionService tableVersionService, ApplicationEventPublisher eventPublisher) {
+        this.personRepository = personRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.cacheManagementService = cacheManagementService;
+        this.tableVersionService = tableVersionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public ImportResult importPersons(InputStream in, MediaType contentType) throws IOException {
+        try {
+            return importRows(readRows(in, contentType), new PersonImporter());
+        } finally {
+            cacheManagementService.evictAfterExternalWrite(false);
+            tableVersionService.bump(TableVersionService.PERSONS);
+        }
+    }
+
+    public ImportResult importVehicles(InputStream in, MediaType contentType) throws IOException {
+        try {
+            return importRows(readRows(in, contentType), new VehicleImporter());
+        } finally {
+            cacheManagementService.evictAfterExternalWrite(false);
+            tableVersionService.bump(TableVersionService.VEHICLES);
+        }
+    }
+
+    public ImportResult importPhones(InputStream in, MediaType contentType) throws IOException {
+        try {
+            return importRows(readRows(in, contentType), new PhoneImporter());
+        } finally {
+            cacheManagementService.evictAfterExternalWrite(true);
+            tableVersionService.bump(TableVersionService.PHONES);
+        }
+    }
+
+    private <T> ImportResult importRows(Iterator<Map<String, String>> rows, RowImporter<T> importer) {
+        ImportResult result = new ImportResult();
+        List<PendingRow<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+        int rowNumber = 0;
+
+        while (true) {
+            Map<String, String> row;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                row = rows.next();
+            } catch (IllegalArgumentException e) {
+                // A well-formed element that is not a row (e.g. a number in the array) is rejected on its own
+                rowNumber++;
+                result.recordRow();
+                result.recordError(rowNumber, e.getMessage());
+                continue;
+            } catch (RuntimeException e) {
+                // Malformed JSON cannot be resynchronised, so stop reading but keep what was loaded
+                result.recordRow();
+                result.recordError(rowNumber + 1, "Malformed input, import stopped: " + e.getMessage());
+                break;
+            }
+
+            rowNumber++;
+            result.recordRow();
+            try {
+                chunk.add(new PendingRow<>(rowNumber, row, importer.fromRow(row)));
+            } catch (IllegalArgumentException e) {
+                result.recordError(rowNumber, e.getMessage());
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(chunk, importer, result);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, importer, result);
+        }
+        return result;
+    }
+
+    private <T> void processChunk(List<PendingRow<T>> chunk, RowImporter<T> importer, ImportResult result) {
+        importer.prepare(chunk);
+
+        List<PendingRow<T>> valid = new ArrayList<>(chunk.size());
+        for (PendingRow<T> row : chunk) {
+            Set<ConstraintViolation<T>> violations = validator.validate(row.entity);
+            if (!violations.isEmpty()) {
+                result.recordError(row.number, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        if (valid.isEmpty()) {
+            return;
+        }
+        List<PendingRow<T>> accepted = importer.checkConflicts(valid, result);
+        if (!accepted.isEmpty()) {
+            insertChunk(accepted, importer, result);
+        }
+    }
+
+    // Every inserted row is published as the same change event the entity listeners publish, so the
+    // search index, vehicle statistics and table versions are updated incrementally after commit
+    private <T> void insertChunk(List<PendingRow<T>> rows, RowImporter<T> importer, ImportResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> keys = insertBatch(rows, importer);
+                for (int i = 0; i < rows.size(); i++) {
+                    eventPublisher.publishEvent(importer.changedEvent(rows.get(i).entity, i < keys.size() ? keys.get(i) : null));
+                }
+            });
+            result.recordImported(rows.size());
+        } catch (DataAccessException e) {
+            // The batch was rolled back; insert row by row so only the offending rows are rejected
+            for (PendingRow<T> row : rows) {
+                try {
+                    KeyHolder keyHolder = new GeneratedKeyHolder();
+                    jdbcTemplate.update(connection -> {
+                        PreparedStatement ps = prepare(connection, importer);
+                        importer.bind(ps, row.entity);
+                        return ps;
+                    }, keyHolder);
+                    Number key = importer.keyColumn() != null ? keyHolder.getKey() : null;
+                    eventPublisher.publishEvent(importer.changedEvent(row.entity, key != null ? key.longValue() : null));
+                    result.recordImported(1);
+                } catch (DataAccessException rowError) {
+                    result.recordError(row.number, rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    // One JDBC batch; returns the generated ids in row order when the table has one
+    private <T> List<Long> insertBatch(List<PendingRow<T>> rows, RowImporter<T> importer) {
+        return jdbcTemplate.execute(connection -> prepare(connection, importer), (PreparedStatement ps) -> {
+            for (PendingRow<T> row : rows) {
+                importer.bind(ps, row.entity);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            List<Long> keys = new ArrayList<>(rows.size());
+            if (importer.keyColumn() != null) {
+                try (ResultSet generated = ps.getGeneratedKeys()) {
+                    while (generated.next()) {
+                        keys.add(generated.getLong(1));
+                    }
+                }
+            }
+            return keys;
+        });
+    }
+
+    private static PreparedStatement prepare(Connection connection, RowImporter<?> importer) throws SQLException {
+        return importer.keyColumn() != null
+            ? connection.prepareStatement(importer.insertSql(), new String[] {importer.keyColumn()})
+            : connection.prepareStatement(importer.insertSql());
+    }
+
+    private Iterator<Map<String, String>> readRows(InputStream in, MediaType contentType) throws IOException {
+        if (contentType != null && TEXT_CSV.includes(contentType)) {
+            CsvRowReader csv = new CsvRowReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return csv.hasNext();
+                }
+
+                @Override
+                public Map<String, String> next() {
+                    return normalizeKeys(csv.next());
+                }
+            };
+        }
+
+        // JSON array and NDJSON (whitespace separated root values) are both read element by element
+        MappingIterator<JsonNode> json = objectMapper.readerFor(JsonNode.class).readValues(in);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return json.hasNextValue();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public Map<String, String> next() {
+                JsonNode node = json.next();
+                if (!node.isObject()) {
+                    throw new IllegalArgumentException("Expected a JSON object but found " + node.getNodeType());
+                }
+                Map<String, String> row = new HashMap<>();
+                node.fields().forEachRemaining(field -> {
+                    JsonNode value = field.getValue();
+                    row.put(field.getKey(), value.isNull() ? null : value.isValueNode() ? value.asText() : value.toString());
+                });
+                return normalizeKeys(row);
+            }
+        };
+    }
+
+    // "Registration Number", "registration_number" and "regnumber" all map to the same key
+    private static Map<String, String> normalizeKeys(Map<String, String> row) {
+        Map<String, String> normalized = new HashMap<>();
+        row.forEach((key, value) -> normalized.put(
+            key.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", ""),
+            value != null ? value.trim() : null));
+        return normalized;
+    }
+
+    private static String field(Map<String, String> row, String... keys) {
+        for (String key : keys) {
+            String value = row.get(key);
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static Integer parseInteger(String value, String label) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + " must be a number");
+        }
+    }
+
+    private static Long parseLong(String value, String label) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + " must be a number");
+        }
+    }
+
+    private static class PendingRow<T> {
+        final int number;
+        final Map<String, String> source;
+        final T entity;
+
+        PendingRow(int number, Map<String, String> source, T entity) {
+            this.number = number;
+            this.source = source;
+            this.entity = entity;
+        }
+    }
+
+    private interface RowImporter<T> {
+        T fromRow(Map<String, String> row);
+
+        default void prepare(List<PendingRow<T>> chunk) {}
+
+        List<PendingRow<T>> checkConflicts(List<PendingRow<T>> rows, ImportResult result);
+
+        String insertSql();
+
+        // Generated id column, or null when the key is part of the row
+        default String keyColumn() {
+            return null;
+        }
+
+        void bind(PreparedStatement ps, T entity) throws SQLException;
+
+        Object changedEvent(T entity, Long id);
+    }
+
+    private class PersonImporter implements RowImporter<Person> {
+
+        @Override
+        public Person fromRow(Map<String, String> row) {
+            return new Person(
+                field(row, "name"),
+                field(row, "regnumber", "registrationnumber"),
+                parseInteger(field(row, "height"), "Height"));
+        }
+
+        @Override
+        public List<PendingRow<Person>> checkConflicts(List<PendingRow<Person>> rows, ImportResult result) {
+            Set<String> taken = new HashSet<>(personRepository.findExistingRegnumbers(
+                rows.stream().map(row -> row.entity.getRegnumber()).collect(Collectors.toSet())));
+            List<PendingRow<Person>> accepted = new ArrayList<>(rows.size());
+            for (PendingRow<Person> row : rows) {
+                if (taken.add(row.entity.getRegnumber())) {
+                    accepted.add(row);
+                } else {
+                    result.recordError(row.number, "Registration number already exists: " + row.entity.getRegnumber());
+                }
+            }
+            return accepted;
+        }
+
+        @Override
+        public String insertSql() {
+            return "INSERT INTO persons (name, regnumber, height) VALUES (?, ?, ?)";
+        }
+
+        @Override
+        public String keyColumn() {
+            return "id";
+        }
+
+        @Override
+        public Object changedEvent(Person person, Long id) {
+            return new PersonChangedEvent(id, person.getName(), person.getRegnumber(), false);
+        }
+
+        @Override
+        public void bind(PreparedStatement ps, Person person) throws SQLException {
+            ps.setString(1, person.getName());
+            ps.setString(2, person.getRegnumber());
+            ps.setInt(3, person.getHeight());
+        }
+    }
+
+    private class VehicleImporter implements RowImporter<Vehicle> {
+
+        @Override
+        public Vehicle fromRow(Map<String, String> row) {
+            String regnum = field(row, "regnum", "registrationnumber");
+            if (regnum == null) {
+                throw new IllegalArgumentException("Registration number is required");
+            }
+            return new Vehicle(regnum, field(row, "brand"), field(row, "color"));
+        }
+
+        @Override
+        public List<PendingRow<Vehicle>> checkConflicts(List<PendingRow<Vehicle>> rows, ImportResult result) {
+            Set<String> taken = new HashSet<>(vehicleRepository.findExistingRegnums(
+                rows.stream().map(row -> row.entity.getRegnum()).collect(Collectors.toSet())));
+            List<PendingRow<Vehicle>> accepted = new ArrayList<>(rows.size());
+            for (PendingRow<Vehicle> row : rows) {
+                if (taken.add(row.entity.getRegnum())) {
+                    accepted.add(row);
+                } else {
+                    result.recordError(row.number, "Registration number already exists: " + row.entity.getRegnum());
+                }
+            }
+            return accepted;
+        }
+
+        @Override
+        public String insertSql() {
+            return "INSERT INTO vehicles (regnum, brand, color) VALUES (?, ?, ?)";
+        }
+
+        @Override
+        public Object changedEvent(Vehicle vehicle, Long id) {
+            return new VehicleChangedEvent(null, null, vehicle.getBrand(), vehicle.getColor());
+        }
+
+        @Override
+        public void bind(PreparedStatement ps, Vehicle vehicle) throws SQLException {
+            ps.setString(1, vehicle.getRegnum());
+            ps.setString(2, vehicle.getBrand());
+            ps.setString(3, vehicle.getColor());
+        }
+    }
+
+    private class PhoneImporter implements RowImporter<Phone> {
+
+        @Override
+        public Phone fromRow(Map<String, String> row) {
+            return new Phone(parseLong(field(row, "personid"), "Person ID"), field(row, "number", "phonenumber"));
+        }
+
+        // Rows may reference their owner by registration number instead of person ID
+        @Override
+        public void prepare(List<PendingRow<Phone>> chunk) {
+            Set<String> regnumbers = chunk.stream()
+                .filter(row -> row.entity.getPersonid() == null)
+                .map(row -> field(row.source, "regnumber", "registrationnumber"))
+                .filter(regnumber -> regnumber != null)
+                .collect(Collectors.toSet());
+            if (regnumbers.isEmpty()) {
+                return;
+            }
+
+            Map<String, Long> personIds = new HashMap<>();
+            for (Object[] match : personRepository.findIdsByRegnumbers(regnumbers)) {
+                personIds.put((String) match[0], (Long) match[1]);
+            }
+            for (PendingRow<Phone> row : chunk) {
+                if (row.entity.getPersonid() == null) {
+                    row.entity.setPersonid(personIds.get(field(row.source, "regnumber", "registrationnumber")));
+                }
+            }
+        }
+
+        @Override
+        public List<PendingRow<Phone>> checkConflicts(List<PendingRow<Phone>> rows, ImportResult result) {
+            Set<Long> known = new HashSet<>(personRepository.findExistingIds(
+                rows.stream().map(row -> row.entity.getPersonid()).collect(Collectors.toSet())));
+            List<PendingRow<Phone>> accepted = new ArrayList<>(rows.size());
+            for (PendingRow<Phone> row : rows) {
+                if (known.contains(row.entity.getPersonid())) {
+                    accepted.add(row);
+                } else {
+                    result.recordError(row.number, "Person not found: " + row.entity.getPersonid());
+                }
+            }
+            return accepted;
+        }
+
+        @Override
+        public String insertSql() {
+            return "INSERT INTO phones (personid, number) VALUES (?, ?)";
+        }
+
+        @Override
+        public String keyColumn() {
+            return "id";
+        }
+
+        @Override
+        public Object changedEvent(Phone phone, Long id) {
+            return new PhoneChangedEvent(id, phone.getPersonid(), phone.getNumber(), false);
+        }
+
+        @Override
+        public void bind(PreparedStatement ps, Phone phone) throws SQLException {
+            ps.setLong(1, phone.getPersonid());
+            ps.setString(2, phone.getNumber());
+        }
+    }
+}
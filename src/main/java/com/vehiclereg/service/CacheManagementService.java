@@ -0,0 +1,126 @@
+package com.vehiclereg.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vehiclereg.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Service
+public class CacheManagementService {
+
+    private final CacheManager cacheManager;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final TableVersionService tableVersionService;
+    private final Map<String, Runnable> warmers = new LinkedHashMap<>();
+
+    public CacheManagementService(CacheManager cacheManager, SecondLevelCacheService secondLevelCacheService,
+                                  VehicleService vehicleService, PersonService personService,
+                                  TableVersionService tableVersionService) {
+        this.cacheManager = cacheManager;
+        this.secondLevelCacheService = secondLevelCacheService;
+        this.tableVersionService = tableVersionService;
+
+        // Warming calls the cached service method itself so the entry is stored under its real key
+        warmers.put(CacheConfig.VEHICLE_LISTING, vehicleService::findAllWithOwners);
+        warmers.put(CacheConfig.PERSON_OVERVIEW, personService::findAllWithPhones);
+        warmers.put(CacheConfig.PHONE_OVERVIEW, personService::findAllPhonesWithPerson);
+    }
+
+    public List<Map<String, Object>> regions() {
+        List<Map<String, Object>> regions = new ArrayList<>();
+        for (String name : new TreeSet<>(cacheManager.getCacheNames())) {
+            regions.add(describe(name));
+        }
+        return regions;
+    }
+
+    public boolean exists(String region) {
+        return cacheManager.getCacheNames().contains(region);
+    }
+
+    public boolean evictRegion(String region) {
+        Cache cache = find(region);
+        if (cache == null) {
+            return false;
+        }
+        cache.clear();
+        return true;
+    }
+
+    // Keys are matched by their string form as listed in regions(): the cached methods take no
+    // arguments, so their entries are stored under SimpleKey.EMPTY ("SimpleKey []"), not a String
+    public boolean evictKey(String region, String key) {
+        if (!(find(region) instanceof CaffeineCache caffeineCache)) {
+            return false;
+        }
+        boolean evicted = false;
+        Iterator<Object> keys = caffeineCache.getNativeCache().asMap().keySet().iterator();
+        while (keys.hasNext()) {
+            if (String.valueOf(keys.next()).equals(key)) {
+                keys.remove();
+                evicted = true;
+            }
+        }
+        return evicted;
+    }
+
+    public boolean warmRegion(String region) {
+        Runnable warmer = warmers.get(region);
+        if (warmer == null || !evictRegion(region)) {
+            return false;
+        }
+        warmer.run();
+        return true;
+    }
+
+    // Drops every application region and the Hibernate second-level cache. Also invalidates the
+    // API's ETags, since clearing is how edits made directly in the database get picked up.
+    public void clearAll() {
+        for (String name : cacheManager.getCacheNames()) {
+            evictRegion(name);
+        }
+        secondLevelCacheService.evictAll();
+        tableVersionService.bumpAll();
+    }
+
+    // Writes that bypass the repositories (JDBC bulk inserts) do not trigger @CacheEvict
+    public void evictAfterExternalWrite(boolean phonesChanged) {
+        for (String name : cacheManager.getCacheNames()) {
+            evictRegion(name);
+        }
+        secondLevelCacheService.evictAfterExternalInsert(phonesChanged);
+    }
+
+    private Cache find(String region) {
+        return exists(region) ? cacheManager.getCache(region) : null;
+    }
+
+    private Map<String, Object> describe(String name) {
+        Map<String, Object> region = new LinkedHashMap<>();
+        region.put("name", name);
+        region.put("warmable", warmers.containsKey(name));
+        Cache cache = cacheManager.getCache(name);
+        if (cache instanceof CaffeineCache caffeineCache) {
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+            CacheStats stats = nativeCache.stats();
+            region.put("size", nativeCache.estimatedSize());
+            nativeCache.policy().eviction().ifPresent(eviction -> region.put("maxSize", eviction.getMaximum()));
+            nativeCache.policy().expireAfterWrite().ifPresent(expiry ->
+                region.put("ttlSeconds", expiry.getExpiresAfter().toSeconds()));
+            region.put("hits", stats.hitCount());
+            region.put("misses", stats.missCount());
+            region.put("hitRatio", stats.hitRate());
+            region.put("evictions", stats.evictionCount());
+            region.put("keys", nativeCache.asMap().keySet().stream().map(String::valueOf).toList());
+        }
+        return region;
+    }
+}
@@ -0,0 +1,54 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.dto.VehicleWithOwner;
+import com.vehiclereg.entity.Person;
+import com.vehiclereg.entity.Phone;
+import com.vehiclereg.entity.Vehicle;
+import java.util.List;
+
+// Plain copies of the entities kept in the application caches. A cached list is shared by every request,
+// so it must not hold the loading session's entities, collections or proxies; copies keep one request
+// from changing what the next one renders, and the lists are unmodifiable.
+final class CachedCopies {
+
+    private CachedCopies() {
+    }
+
+    static List<Person> personsWithPhones(List<Person> persons) {
+        return persons.stream().map(CachedCopies::personWithPhones).toList();
+    }
+
+    static List<Phone> phonesWithPerson(List<Phone> phones) {
+        return phones.stream().map(phone -> phone(phone, phone.getPerson() != null ? person(phone.getPerson()) : null)).toList();
+    }
+
+    static List<VehicleWithOwner> vehiclesWithOwners(List<VehicleWithOwner> rows) {
+        return rows.stream()
+            .map(row -> new VehicleWithOwner(vehicle(row.getVehicle()), row.getOwner() != null ? person(row.getOwner()) : null))
+            .toList();
+    }
+
+    private static Person personWithPhones(Person source) {
+        Person copy = person(source);
+        copy.setPhones(source.getPhones().stream().map(phone -> phone(phone, copy)).toList());
+        return copy;
+    }
+
+    // Basic fields only: the person's phones were not fetched
+    private static Person person(Person source) {
+        Person copy = new Person(source.getName(), source.getRegnumber(), source.getHeight());
+        copy.setId(source.getId());
+        return copy;
+    }
+
+    private static Phone phone(Phone source, Person person) {
+        Phone copy = new Phone(source.getPersonid(), source.getNumber());
+        copy.setId(source.getId());
+        copy.setPerson(person);
+        return copy;
+    }
+
+    private static Vehicle vehicle(Vehicle source) {
+        return new Vehicle(source.getRegnum(), source.getBrand(), source.getColor());
+    }
+}
@@ -0,0 +1,56 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.config.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class ConnectionPoolService {
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ReplicaSet> replicaSet;
+
+    // The replica set only exists when read replicas are configured (ReplicaRoutingConfig)
+    public ConnectionPoolService(DataSource dataSource, ObjectProvider<ReplicaSet> replicaSet) {
+        this.dataSource = dataSource;
+        this.replicaSet = replicaSet;
+    }
+
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        HikariDataSource hikari = unwrap();
+        if (hikari == null) {
+            stats.put("pool", "unavailable");
+            return stats;
+        }
+
+        stats.put("pool", hikari.getPoolName());
+        stats.put("maxSize", hikari.getMaximumPoolSize());
+        stats.put("minIdle", hikari.getMinimumIdle());
+        stats.put("connectionTimeoutMs", hikari.getConnectionTimeout());
+
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool != null) {
+            stats.put("active", pool.getActiveConnections());
+            stats.put("idle", pool.getIdleConnections());
+            stats.put("total", pool.getTotalConnections());
+            stats.put("pending", pool.getThreadsAwaitingConnection());
+        }
+        replicaSet.ifAvailable(replicas -> stats.put("replicas", replicas.status()));
+        return stats;
+    }
+
+    private HikariDataSource unwrap() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
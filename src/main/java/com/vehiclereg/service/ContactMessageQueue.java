@@ -0,0 +1,507 @@
+package com.vehiclereg.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehiclereg.entity.ContactMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind queue for contact form submissions. A submission is appended (and fsynced) to a
+// local journal and queued; a single writer thread inserts queued messages in JDBC batches, so
+// request latency no longer depends on the database. The journal is replayed on startup, which
+// makes delivery at-least-once: a crash between a batch commit and its checkpoint re-inserts
+// that batch. Appends are group committed: concurrent submissions share one fsync, so the
+// journal is not limited to one submission per disk flush. The directory is locked while the
+// queue runs, so two instances can never replay or truncate the same journal.
+@Service
+public class ContactMessageQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactMessageQueue.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO contact_messages (name, email, subject, message, sent_at) VALUES (?, ?, ?, ?, ?)";
+    private static final long POLL_MILLIS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration shutdownTimeout;
+    private final Path journalPath;
+    private final Path checkpointPath;
+    private final Path lockPath;
+
+    // Unbounded so recovered journal entries always fit; offer() enforces the capacity
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    // Locks rather than monitors: both are held across file writes and fsyncs, which must not pin
+    // the carrier thread of a virtual thread (JDK 21)
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private FileChannel journal;
+    private FileChannel lockChannel;
+    private long nextSeq;
+    // Highest sequence number known to be on disk, guarded by syncLock
+    private long syncedSeq;
+    private volatile boolean running;
+    private Thread writer;
+
+    private final Timer flushTimer;
+    private final Counter persisted;
+    private final Counter rejected;
+    private final Counter dropped;
+
+    public ContactMessageQueue(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               @Value("${app.contact.queue.capacity:10000}") int capacity,
+                               @Value("${app.contact.queue.batch-size:100}") int batchSize,
+                               @Value("${app.contact.queue.retry-delay:5s}") Duration retryDelay,
+                               @Value("${app.contact.queue.shutdown-timeout:30s}") Duration shutdownTimeout,
+                               @Value("${app.contact.queue.dir:${java.io.tmpdir}/vehiclereg-contact-queue}") Path dir,
+                               @Value("${app.contact.queue.allow-temp-dir:true}") boolean allowTempDir) {
+        // The journal holds acknowledged submissions, so it must survive a reboot and tmp cleaners
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+        if (!allowTempDir && dir.toAbsolutePath().normalize().startsWith(tmp)) {
+            throw new IllegalStateException("app.contact.queue.dir must be persistent storage outside " + tmp + ": " + dir);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.shutdownTimeout = shutdownTimeout;
+        this.journalPath = dir.resolve("contact-messages.journal");
+        this.checkpointPath = dir.resolve("contact-messages.checkpoint");
+        this.lockPath = dir.resolve("contact-messages.lock");
+
+        Gauge.builder("contact.queue.depth", queue, BlockingQueue::size)
+            .description("Contact messages waiting to be written")
+            .register(meterRegistry);
+        Gauge.builder("contact.queue.capacity", () -> capacity).register(meterRegistry);
+        this.flushTimer = Timer.builder("contact.queue.flush")
+            .description("Time to write one batch of contact messages")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.persisted = Counter.builder("contact.queue.persisted").register(meterRegistry);
+        this.rejected = Counter.builder("contact.queue.rejected")
+            .description("Submissions refused because the queue was full")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("contact.queue.dropped")
+            .description("Messages the database rejected as invalid")
+            .register(meterRegistry);
+    }
+
+    // Returns false when the queue is full (or not running); the caller should answer 429.
+    // Throws UncheckedIOException if the message could not be journaled.
+    public boolean offer(ContactMessage message) {
+        Entry entry;
+        journalLock.lock();
+        try {
+            if (!running || queue.size() >= capacity) {
+                rejected.increment();
+                return false;
+            }
+            entry = new Entry(nextSeq++, message);
+            append(entry);
+            // Queued in sequence order, which the checkpoint relies on
+            queue.add(entry);
+        } finally {
+            journalLock.unlock();
+        }
+        sync(entry.seq);
+        return true;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(journalPath.getParent());
+            lockDirectory();
+            long checkpoint = readCheckpoint();
+            List<Entry> recovered = readJournal(checkpoint);
+            nextSeq = recovered.isEmpty() ? checkpoint + 1 : recovered.get(recovered.size() - 1).seq + 1;
+            syncedSeq = nextSeq - 1;
+            queue.addAll(recovered);
+            rewriteJournal(recovered);
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+            if (!recovered.isEmpty()) {
+                log.info("Recovered {} unsaved contact messages from {}", recovered.size(), journalPath);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Whatever went wrong, the next start (or another instance) must be able to take the directory;
+            // the recovered entries are still in the journal
+            queue.clear();
+            if (journal != null) {
+                closeJournal();
+                journal = null;
+            }
+            releaseDirectory();
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new UncheckedIOException("Cannot open contact message journal " + journalPath, (IOException) e);
+        }
+
+        running = true;
+        writer = new Thread(this::drain, "contact-message-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Stops accepting, then gives the writer a bounded time to empty the queue. Anything left
+    // (e.g. the database is down) stays in the journal for the next start.
+    @Override
+    public void stop() {
+        journalLock.lock();
+        try {
+            running = false;
+        } finally {
+            journalLock.unlock();
+        }
+        if (writer == null) {
+            // start() failed; the journal and the directory lock were never held
+            return;
+        }
+        try {
+            writer.join(shutdownTimeout.toMillis());
+            if (writer.isAlive()) {
+                log.warn("{} contact messages not written before shutdown; kept in {}", queue.size(), journalPath);
+                writer.interrupt();
+                writer.join(POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journalLock.lock();
+        try {
+            closeJournal();
+        } finally {
+            journalLock.unlock();
+        }
+        releaseDirectory();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the embedded web server, so no request sees a stopped queue
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Entry first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                long lastSeq = batch.get(batch.size() - 1).seq;
+                flush(batch);
+                writeCheckpoint(lastSeq);
+                compactJournal();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // The remaining batch is retried; new submissions back up until the queue is full
+                log.warn("Writing {} contact messages failed, retrying in {}: {}", batch.size(), retryDelay, e.getMessage());
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Removes entries from the batch as they are written, so a retry never re-inserts them
+    private void flush(List<Entry> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind));
+            persisted.increment(batch.size());
+            batch.clear();
+        } catch (DataIntegrityViolationException e) {
+            // Insert row by row so only the offending messages are dropped
+            for (Iterator<Entry> it = batch.iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, entry));
+                    persisted.increment();
+                } catch (DataIntegrityViolationException rowError) {
+                    log.error("Dropping contact message from {}: {}", entry.message.getEmail(),
+                        rowError.getMostSpecificCause().getMessage());
+                    dropped.increment();
+                }
+                it.remove();
+            }
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    private void bind(PreparedStatement ps, Entry entry) throws SQLException {
+        ContactMessage message = entry.message;
+        ps.setString(1, message.getName());
+        ps.setString(2, message.getEmail());
+        ps.setString(3, message.getSubject());
+        ps.setString(4, message.getMessage());
+        ps.setTimestamp(5, Timestamp.valueOf(message.getSentAt()));
+    }
+
+    // Written under journalLock but not yet durable; sync() makes it so
+    private void append(Entry entry) {
+        try {
+            write(journal, entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot journal contact message", e);
+        }
+    }
+
+    // Group commit: the first caller to get here forces everything appended so far, and the callers
+    // that queued up behind it find their entry already on disk. If the force fails the entry is
+    // still queued, so the submission may be saved even though the caller reports an error.
+    private void sync(long seq) {
+        syncLock.lock();
+        try {
+            if (syncedSeq >= seq) {
+                return;
+            }
+            long appended;
+            journalLock.lock();
+            try {
+                appended = nextSeq - 1;
+            } finally {
+                journalLock.unlock();
+            }
+            try {
+                journal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot journal contact message", e);
+            }
+            syncedSeq = appended;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void write(FileChannel channel, Entry entry) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("seq", entry.seq);
+        line.put("name", entry.message.getName());
+        line.put("email", entry.message.getEmail());
+        line.put("subject", entry.message.getSubject());
+        line.put("message", entry.message.getMessage());
+        line.put("sentAt", entry.message.getSentAt().toString());
+
+        byte[] json = objectMapper.writeValueAsBytes(line);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Rewrites the journal with only the unsaved entries, which also drops a torn last line that
+    // new appends would otherwise run into
+    private void rewriteJournal(List<Entry> entries) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        Path tmp = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Entry entry : entries) {
+                write(channel, entry);
+            }
+            channel.force(false);
+        }
+        Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+    }
+
+    // Once everything journaled has been written, the journal can start over
+    private void compactJournal() {
+        journalLock.lock();
+        try {
+            if (queue.isEmpty() && journal.isOpen() && journal.size() > 0) {
+                journal.truncate(0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private List<Entry> readJournal(long checkpoint) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(journalPath)) {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    // A torn last line from a crash mid-append; that submission was never acknowledged
+                    log.warn("Skipping unreadable contact message journal line");
+                    continue;
+                }
+                long seq = node.path("seq").asLong();
+                if (seq > checkpoint) {
+                    ContactMessage message = new ContactMessage(node.path("name").asText(), node.path("email").asText(),
+                        node.path("subject").asText(), node.path("message").asText());
+                    message.setSentAt(LocalDateTime.parse(node.path("sentAt").asText()));
+                    entries.add(new Entry(seq, message));
+                }
+            }
+        }
+        return entries;
+    }
+
+    // An empty or garbled checkpoint (e.g. written by a file system that lost it in a power cut) replays
+    // the whole journal: messages already saved may be inserted again, none are lost
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return 0;
+        }
+        String checkpoint = Files.readString(checkpointPath).trim();
+        try {
+            return Long.parseLong(checkpoint);
+        } catch (NumberFormatException e) {
+            log.warn("Unreadable contact message checkpoint {} ('{}'), replaying the whole journal", checkpointPath, checkpoint);
+            return 0;
+        }
+    }
+
+    // The new checkpoint is forced to disk before it replaces the old one, and the rename is forced
+    // before the journal is compacted, so the checkpoint never rolls back behind a truncated journal
+    private void writeCheckpoint(long seq) {
+        try {
+            Path tmp = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(Long.toString(seq).getBytes(StandardCharsets.US_ASCII));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Makes a rename durable. Not every platform can open a directory (Windows cannot); there the
+    // rename is as durable as the file system makes it
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(checkpointPath.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            log.debug("Cannot force contact message journal directory: {}", e.getMessage());
+        }
+    }
+
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Closing contact message journal failed", e);
+        }
+    }
+
+    // Fails the start instead of waiting when another process already owns the journal
+    private void lockDirectory() throws IOException {
+        lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        boolean locked;
+        try {
+            locked = lockChannel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            // Held by another application context in this JVM
+            locked = false;
+        }
+        if (!locked) {
+            lockChannel.close();
+            lockChannel = null;
+            throw new IllegalStateException("Contact message journal " + journalPath + " is in use by another process");
+        }
+    }
+
+    private void releaseDirectory() {
+        if (lockChannel == null) {
+            return;
+        }
+        try {
+            // Closing the channel releases the lock
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Releasing contact message journal lock failed", e);
+        }
+        lockChannel = null;
+    }
+
+    private static class Entry {
+        private final long seq;
+        private final ContactMessage message;
+
+        private Entry(long seq, ContactMessage message) {
+            this.seq = seq;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.repository.PersonRepository;
+import com.vehiclereg.repository.PhoneRepository;
+import com.vehiclereg.repository.UserRepository;
+import com.vehiclereg.repository.VehicleRepository;
+import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@Service
+public class CsvExportService {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final EntityStreamService entityStreamService;
+    private final UserRepository userRepository;
+    private final PersonRepository personRepository;
+    private final VehicleRepository vehicleRepository;
+    private final PhoneRepository phoneRepository;
+
+    public CsvExportService(EntityStreamService entityStreamService, UserRepository userRepository,
+                            PersonRepository personRepository, VehicleRepository vehicleRepository,
+                            PhoneRepository phoneRepository) {
+        this.entityStreamService = entityStreamService;
+        this.userRepository = userRepository;
+        this.personRepository = personRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.phoneRepository = phoneRepository;
+    }
+
+    public void writeUsers(OutputStream out) throws IOException {
+        Writer writer = newWriter(out);
+        writer.write("ID,Username,Email,Full Name,Role,Created At\n");
+        entityStreamService.forEach(userRepository::streamAll, user -> {
+            writer.write(String.valueOf(user.getId()));
+            writer.write(',');
+            writeQuoted(writer, user.getUsername());
+            writer.write(',');
+            writeQuoted(writer, user.getEmail());
+            writer.write(',');
+            writeQuoted(writer, user.getFullName());
+            writer.write(',');
+            writer.write(String.valueOf(user.getRole()));
+            writer.write(',');
+            writer.write(String.valueOf(user.getCreatedAt()));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    public void writePersons(OutputStream out) throws IOException {
+        Writer writer = newWriter(out);
+        writer.write("ID,Name,Registration Number,Height\n");
+        entityStreamService.forEach(personRepository::streamAll, person -> {
+            writer.write(String.valueOf(person.getId()));
+            writer.write(',');
+            writeQuoted(writer, person.getName());
+            writer.write(',');
+            writeQuoted(writer, person.getRegnumber());
+            writer.write(',');
+            writer.write(String.valueOf(person.getHeight()));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    public void writeVehicles(OutputStream out) throws IOException {
+        Writer writer = newWriter(out);
+        writer.write("Registration Number,Brand,Color\n");
+        entityStreamService.forEach(vehicleRepository::streamAll, vehicle -> {
+            writeQuoted(writer, vehicle.getRegnum());
+            writer.write(',');
+            writeQuoted(writer, vehicle.getBrand());
+            writer.write(',');
+            writeQuoted(writer, vehicle.getColor());
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    public void writePhones(OutputStream out) throws IOException {
+        Writer writer = newWriter(out);
+        writer.write("ID,Person ID,Number\n");
+        entityStreamService.forEach(phoneRepository::streamAll, phone -> {
+            writer.write(String.valueOf(phone.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(phone.getPersonid()));
+            writer.write(',');
+            writeQuoted(writer, phone.getNumber());
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    private Writer newWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // Quote every text field and double embedded quotes (RFC 4180)
+    private void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        if (value != null) {
+            if (value.indexOf('"') >= 0) {
+                writer.write(value.replace("\"", "\"\""));
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write('"');
+    }
+}
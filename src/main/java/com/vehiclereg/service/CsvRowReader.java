@@ -0,0 +1,103 @@
+package com.vehiclereg.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Minimal RFC 4180 reader: the first record is the header, every following record
+// is returned as a header -> value map. Quoted fields may contain commas, quotes and newlines.
+public class CsvRowReader implements Iterator<Map<String, String>> {
+
+    private final BufferedReader reader;
+    private final List<String> header;
+    private List<String> nextRecord;
+
+    public CsvRowReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<String> headerRecord = readRecord();
+        this.header = headerRecord != null ? headerRecord : new ArrayList<>();
+        this.nextRecord = readNonEmptyRecord();
+    }
+
+    public List<String> getHeader() {
+        return header;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRecord != null;
+    }
+
+    @Override
+    public Map<String, String> next() {
+        if (nextRecord == null) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.size() && i < nextRecord.size(); i++) {
+            row.put(header.get(i), nextRecord.get(i));
+        }
+        try {
+            nextRecord = readNonEmptyRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return row;
+    }
+
+    private List<String> readNonEmptyRecord() throws IOException {
+        List<String> record = readRecord();
+        while (record != null && record.size() == 1 && record.get(0).isEmpty()) {
+            record = readRecord();
+        }
+        return record;
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean readAny = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            readAny = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (following != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!readAny) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,70 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.dto.DashboardStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class DashboardStatsService {
+
+    // All counters in one round trip; scalar subqueries work on both MySQL and H2
+    private static final String COUNTS_QUERY =
+        "SELECT (SELECT COUNT(*) FROM persons), (SELECT COUNT(*) FROM vehicles), " +
+        "(SELECT COUNT(*) FROM phones), (SELECT COUNT(*) FROM contact_messages), " +
+        "(SELECT COUNT(*) FROM users)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration staleness;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // Not a monitor: the first load runs a query, and a virtual thread blocked in a synchronized
+    // block keeps its carrier thread (JDK 21)
+    private final ReentrantLock firstLoad = new ReentrantLock();
+    private volatile DashboardStats snapshot;
+
+    public DashboardStatsService(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.dashboard.stats-staleness:5s}") Duration staleness) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.staleness = staleness;
+    }
+
+    // Returns a snapshot at most one staleness window old. Only one caller refreshes an expired
+    // snapshot; concurrent callers keep serving the previous one instead of queueing on the query.
+    public DashboardStats getStats() {
+        DashboardStats current = snapshot;
+        if (current == null) {
+            firstLoad.lock();
+            try {
+                if (snapshot == null) {
+                    snapshot = load();
+                }
+                return snapshot;
+            } finally {
+                firstLoad.unlock();
+            }
+        }
+
+        if (isExpired(current) && refreshing.compareAndSet(false, true)) {
+            try {
+                snapshot = load();
+                return snapshot;
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return current;
+    }
+
+    private boolean isExpired(DashboardStats stats) {
+        return stats.getLoadedAt().plus(staleness).isBefore(Instant.now());
+    }
+
+    private DashboardStats load() {
+        return jdbcTemplate.queryForObject(COUNTS_QUERY, (rs, rowNum) -> new DashboardStats(
+            rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), Instant.now()));
+    }
+}
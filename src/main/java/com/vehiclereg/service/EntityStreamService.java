@@ -0,0 +1,55 @@
+package com.vehiclereg.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Service
+public class EntityStreamService {
+
+    // Detach rows periodically so the persistence context stays bounded on large tables
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EntityStreamService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <T> void forEach(Supplier<Stream<T>> source, RowWriter<T> writer) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = source.get()) {
+                    Iterator<T> iterator = rows.iterator();
+                    int count = 0;
+                    while (iterator.hasNext()) {
+                        writer.write(iterator.next());
+                        if (++count % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+}
@@ -0,0 +1,475 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.dto.PersonSearchHit;
+import com.vehiclereg.dto.SearchResult;
+import com.vehiclereg.event.PersonChangedEvent;
+import com.vehiclereg.event.PhoneChangedEvent;
+import com.vehiclereg.repository.PersonRepository;
+import com.vehiclereg.repository.PhoneRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over person names, registration numbers and phone numbers.
+// Terms are lowercased alphanumeric tokens (phone numbers keep digits only). A sorted term
+// dictionary answers prefix queries and a trigram -> term index answers substring and fuzzy
+// queries, so searches never scan the tables. Built once at startup, then maintained from
+// committed person/phone events. Events that arrive while a rebuild reads the tables are applied
+// to the current index and also queued, then replayed onto the new index before it is swapped in
+// (every change is idempotent, so replaying one the rebuild already read is harmless).
+@Service
+public class PersonSearchIndex {
+
+    private static final int GRAM = 3;
+    // "+36 20 123-4567" style queries are matched as one digit string against phone numbers
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("[+(]?\\d[\\d\\s()./-]*");
+    private static final int SCORE_EXACT = 4;
+    private static final int SCORE_PREFIX = 3;
+    private static final int SCORE_SUBSTRING = 2;
+    private static final int SCORE_FUZZY = 1;
+
+    private final PersonRepository personRepository;
+    private final PhoneRepository phoneRepository;
+    private final EntityStreamService entityStreamService;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes rebuilds; taken before the write lock, never while holding it. A lock rather than a
+    // monitor, so a virtual thread waiting out a rebuild's table scan does not pin its carrier (JDK 21)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Index index;
+    // Changes committed while a rebuild is running, guarded by the write lock
+    private List<Consumer<Index>> pending;
+
+    public PersonSearchIndex(PersonRepository personRepository, PhoneRepository phoneRepository,
+                             EntityStreamService entityStreamService) {
+        this.personRepository = personRepository;
+        this.phoneRepository = phoneRepository;
+        this.entityStreamService = entityStreamService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index rebuilt = new Index();
+            try {
+                entityStreamService.forEach(personRepository::streamAll,
+                    person -> rebuilt.putPerson(person.getId(), person.getName(), person.getRegnumber()));
+                entityStreamService.forEach(phoneRepository::streamAll,
+                    phone -> rebuilt.putPhone(phone.getId(), phone.getPersonid(), phone.getNumber()));
+            } catch (IOException | RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(rebuilt));
+                pending = null;
+                index = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        if (event.isDeleted()) {
+            apply(index -> index.removePerson(event.getId()));
+        } else {
+            apply(index -> index.putPerson(event.getId(), event.getName(), event.getRegnumber()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhoneChanged(PhoneChangedEvent event) {
+        if (event.isDeleted()) {
+            apply(index -> index.removePhone(event.getId()));
+        } else {
+            apply(index -> index.putPhone(event.getId(), event.getPersonid(), event.getNumber()));
+        }
+    }
+
+    // Before the first rebuild has started there is nothing to update: it will read the change from the table
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+            }
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Every query token must match some term of a person (AND); each token scores its best
+    // match: exact > prefix > substring > fuzzy (1 edit, or 2 for tokens of 7+ chars; a swap of
+    // adjacent characters counts as one edit; numeric tokens are never matched fuzzily)
+    public SearchResult search(String query, boolean fuzzy, int page, int size) {
+        List<String> tokens = PHONE_QUERY.matcher(query).matches() ? List.of(digits(query)) : tokenize(query);
+        if (tokens.isEmpty()) {
+            return new SearchResult(query, 0, page, size, List.of());
+        }
+        ensureBuilt();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String token : tokens) {
+                Map<Long, Integer> tokenScores = index.match(token, fuzzy);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Long, Integer> combined = new HashMap<>();
+                    for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                        Integer score = tokenScores.get(entry.getKey());
+                        if (score != null) {
+                            combined.put(entry.getKey(), entry.getValue() + score);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            // Only the best (page + 1) * size entries are kept in a bounded heap, and hits are only
+            // materialized for the requested page, so broad queries do not sort every match
+            Comparator<Map.Entry<Long, Integer>> order = Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(entry -> index.documents.get(entry.getKey()).name,
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(Map.Entry::getKey);
+            int limit = (int) Math.min((long) (page + 1) * size, scores.size());
+            PriorityQueue<Map.Entry<Long, Integer>> best = new PriorityQueue<>(Math.max(limit, 1), order.reversed());
+            for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                if (best.size() < limit) {
+                    best.add(entry);
+                } else if (limit > 0 && order.compare(entry, best.peek()) < 0) {
+                    best.poll();
+                    best.add(entry);
+                }
+            }
+            List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(best);
+            ranked.sort(order);
+
+            int from = (int) Math.min((long) page * size, ranked.size());
+            List<PersonSearchHit> hits = new ArrayList<>(ranked.size() - from);
+            for (Map.Entry<Long, Integer> entry : ranked.subList(from, ranked.size())) {
+                Document document = index.documents.get(entry.getKey());
+                hits.add(new PersonSearchHit(document.id, document.name, document.regnumber,
+                    new ArrayList<>(document.phones.values()), entry.getValue()));
+            }
+            return new SearchResult(query, scores.size(), page, size, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Requests may arrive before ApplicationReadyEvent while the context is still starting
+    private void ensureBuilt() {
+        if (index == null) {
+            rebuildLock.lock();
+            try {
+                if (index == null) {
+                    rebuild();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String digits(String number) {
+        return number == null ? "" : number.replaceAll("\\D", "");
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static int maxEdits(String token) {
+        return token.length() >= 7 ? 2 : 1;
+    }
+
+    // Optimal string alignment distance (Levenshtein plus adjacent transpositions), bounded:
+    // returns max + 1 as soon as the distance is known to exceed max
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private static class Document {
+        final Long id;
+        final String name;
+        final String regnumber;
+        final Map<Long, String> phones = new LinkedHashMap<>();
+
+        Document(Long id, String name, String regnumber) {
+            this.id = id;
+            this.name = name;
+            this.regnumber = regnumber;
+        }
+
+        Set<String> terms() {
+            Set<String> terms = new HashSet<>(tokenize(name));
+            terms.addAll(tokenize(regnumber));
+            for (String number : phones.values()) {
+                String digits = digits(number);
+                if (!digits.isEmpty()) {
+                    terms.add(digits);
+                }
+            }
+            return terms;
+        }
+    }
+
+    // Not thread-safe on its own; guarded by the enclosing read/write lock
+    private static class Index {
+        final Map<Long, Document> documents = new HashMap<>();
+        final Map<Long, Long> phoneOwners = new HashMap<>();
+        final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+        final Map<String, Set<String>> gramTerms = new HashMap<>();
+
+        void putPerson(Long id, String name, String regnumber) {
+            Document previous = documents.get(id);
+            Document document = new Document(id, name, regnumber);
+            if (previous != null) {
+                unindex(previous);
+                document.phones.putAll(previous.phones);
+            }
+            documents.put(id, document);
+            index(document);
+        }
+
+        void removePerson(Long id) {
+            Document document = documents.remove(id);
+            if (document != null) {
+                unindex(document);
+                document.phones.keySet().forEach(phoneOwners::remove);
+            }
+        }
+
+        void putPhone(Long phoneId, Long personId, String number) {
+            removePhone(phoneId);
+            Document document = documents.get(personId);
+            if (document == null) {
+                return;
+            }
+            unindex(document);
+            document.phones.put(phoneId, number);
+            phoneOwners.put(phoneId, personId);
+            index(document);
+        }
+
+        void removePhone(Long phoneId) {
+            Long personId = phoneOwners.remove(phoneId);
+            Document document = personId != null ? documents.get(personId) : null;
+            if (document == null) {
+                return;
+            }
+            unindex(document);
+            document.phones.remove(phoneId);
+            index(document);
+        }
+
+        Map<Long, Integer> match(String token, boolean fuzzy) {
+            Map<Long, Integer> scores = new HashMap<>();
+            addScore(scores, postings.get(token), SCORE_EXACT);
+
+            for (Map.Entry<String, Set<Long>> entry : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                addScore(scores, entry.getValue(), SCORE_PREFIX);
+            }
+
+            if (token.length() >= GRAM) {
+                for (String term : substringCandidates(token)) {
+                    if (term.contains(token) && !term.startsWith(token)) {
+                        addScore(scores, postings.get(term), SCORE_SUBSTRING);
+                    }
+                }
+                if (fuzzy && !DIGITS.matcher(token).matches()) {
+                    int max = maxEdits(token);
+                    for (String term : fuzzyCandidates(token, max)) {
+                        if (editDistance(token, term, max) <= max) {
+                            addScore(scores, postings.get(term), SCORE_FUZZY);
+                        }
+                    }
+                }
+            }
+            return scores;
+        }
+
+        // Terms containing every trigram of the token
+        private Set<String> substringCandidates(String token) {
+            Set<String> candidates = null;
+            for (String gram : grams(token)) {
+                Set<String> terms = gramTerms.get(gram);
+                if (terms == null) {
+                    return Set.of();
+                }
+                if (candidates == null) {
+                    candidates = new HashSet<>(terms);
+                } else {
+                    candidates.retainAll(terms);
+                }
+            }
+            return candidates != null ? candidates : Set.of();
+        }
+
+        // Each edit destroys at most GRAM trigrams, so a term within max edits shares at least
+        // grams - GRAM * max of them with the token. Short tokens can lose every trigram to a
+        // single edit, so terms starting with the token's first or second character are added too.
+        private Set<String> fuzzyCandidates(String token, int max) {
+            Set<String> tokenGrams = grams(token);
+            int required = Math.max(1, tokenGrams.size() - GRAM * max);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : tokenGrams) {
+                for (String term : gramTerms.getOrDefault(gram, Set.of())) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+            Set<String> candidates = new HashSet<>();
+            shared.forEach((term, count) -> {
+                if (count >= required) {
+                    candidates.add(term);
+                }
+            });
+            addTermsStartingWith(candidates, token.substring(0, 1), token.length(), max);
+            addTermsStartingWith(candidates, token.substring(1, 2), token.length(), max);
+            return candidates;
+        }
+
+        private void addTermsStartingWith(Set<String> candidates, String start, int length, int max) {
+            for (String term : postings.subMap(start, true, start + Character.MAX_VALUE, false).keySet()) {
+                if (Math.abs(term.length() - length) <= max) {
+                    candidates.add(term);
+                }
+            }
+        }
+
+        private void addScore(Map<Long, Integer> scores, Set<Long> ids, int score) {
+            if (ids != null) {
+                for (Long id : ids) {
+                    scores.merge(id, score, Math::max);
+                }
+            }
+        }
+
+        private void index(Document document) {
+            for (String term : document.terms()) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(term, ids);
+                    for (String gram : grams(term)) {
+                        gramTerms.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                    }
+                }
+                ids.add(document.id);
+            }
+        }
+
+        private void unindex(Document document) {
+            for (String term : document.terms()) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    continue;
+                }
+                ids.remove(document.id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                    for (String gram : grams(term)) {
+                        Set<String> terms = gramTerms.get(gram);
+                        if (terms != null) {
+                            terms.remove(term);
+                            if (terms.isEmpty()) {
+                                gramTerms.remove(gram);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
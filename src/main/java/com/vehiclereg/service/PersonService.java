@@ -0,0 +1,78 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.config.CacheConfig;
+import com.vehiclereg.entity.Person;
+import com.vehiclereg.entity.Phone;
+import com.vehiclereg.repository.PersonRepository;
+import com.vehiclereg.repository.PhoneRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Read side for persons and phones. With open-in-view off nothing can be loaded after these methods
+// return, so each one fetches exactly what its caller renders. Read-only transactions put the Hibernate
+// session in FlushMode.MANUAL and load entities read-only, without dirty-checking snapshots.
+@Service
+@Transactional(readOnly = true)
+public class PersonService {
+
+    private static final int STREAM_WINDOW = 500;
+
+    private final PersonRepository personRepository;
+    private final PhoneRepository phoneRepository;
+
+    public PersonService(PersonRepository personRepository, PhoneRepository phoneRepository) {
+        this.personRepository = personRepository;
+        this.phoneRepository = phoneRepository;
+    }
+
+    // Person list and edit form: basic fields only
+    public List<Person> findAll() {
+        return personRepository.findAll();
+    }
+
+    public Optional<Person> findById(Long id) {
+        return personRepository.findById(id);
+    }
+
+    // Person detail page and API: with phones
+    public Optional<Person> findWithPhones(Long id) {
+        return personRepository.findWithPhonesById(id);
+    }
+
+    // Vehicle detail page: the owner with phones
+    public Optional<Person> findOwnerWithPhones(String regnumber) {
+        return personRepository.findWithPhonesByRegnumber(regnumber);
+    }
+
+    // Database overview and API listing, cached as copies (CachedCopies)
+    @Cacheable(CacheConfig.PERSON_OVERVIEW)
+    public List<Person> findAllWithPhones() {
+        return CachedCopies.personsWithPhones(personRepository.findAllWithPhones());
+    }
+
+    public List<Person> findPageWithPhones(long afterId, int pageSize) {
+        List<Long> ids = personRepository.findIdsAfter(afterId, Limit.of(pageSize));
+        return ids.isEmpty() ? List.of() : personRepository.findWithPhonesByIdIn(ids);
+    }
+
+    // NDJSON export: persons with phones in keyset windows, two queries per window instead of one
+    // phone query per person. Windows are loaded as the stream is consumed, so it must be consumed
+    // inside the caller's transaction (EntityStreamService.forEach).
+    public Stream<Person> streamWithPhones() {
+        return Stream.iterate(findPageWithPhones(0L, STREAM_WINDOW), window -> !window.isEmpty(),
+                window -> window.size() < STREAM_WINDOW ? List.of()
+                    : findPageWithPhones(window.get(window.size() - 1).getId(), STREAM_WINDOW))
+            .flatMap(List::stream);
+    }
+
+    // Database overview, cached as copies
+    @Cacheable(CacheConfig.PHONE_OVERVIEW)
+    public List<Phone> findAllPhonesWithPerson() {
+        return CachedCopies.phonesWithPerson(phoneRepository.findAllWithPerson());
+    }
+}
@@ -0,0 +1,68 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.entity.Person;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Service
+public class SecondLevelCacheService {
+
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public Map<String, Object> statistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : new TreeSet<>(List.of(statistics.getSecondLevelCacheRegionNames()))) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            regionStats.put("hits", region.getHitCount());
+            regionStats.put("misses", region.getMissCount());
+            regionStats.put("puts", region.getPutCount());
+            regionStats.put("hitRatio", hitRatio(region.getHitCount(), region.getMissCount()));
+            regions.put(regionName, regionStats);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        result.put("regions", regions);
+        return result;
+    }
+
+    // Writes that bypass Hibernate (JDBC bulk inserts) are invisible to the query cache
+    // invalidation, so cached lookups and phone collections have to be dropped explicitly
+    public void evictAfterExternalInsert(boolean phonesChanged) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictQueryRegions();
+        if (phonesChanged) {
+            cache.evictCollectionData(Person.class.getName() + ".phones");
+        }
+    }
+
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,85 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.event.PersonChangedEvent;
+import com.vehiclereg.event.PhoneChangedEvent;
+import com.vehiclereg.event.VehicleChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-table change counters behind the API's ETag / Last-Modified headers. Counters are bumped
+// after commit, so a tag is never newer than the data it describes, and they start from a
+// per-process epoch so tags issued before a restart never match. Like the other in-memory stores
+// this only sees writes made through this instance.
+@Service
+public class TableVersionService {
+
+    public static final String PERSONS = "persons";
+    public static final String VEHICLES = "vehicles";
+    public static final String PHONES = "phones";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Version> versions = Map.of(
+        PERSONS, new Version(), VEHICLES, new Version(), PHONES, new Version());
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        bump(PERSONS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        bump(VEHICLES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhoneChanged(PhoneChangedEvent event) {
+        bump(PHONES);
+    }
+
+    // For writes that bypass the entity listeners (JDBC bulk imports, external edits)
+    public void bump(String table) {
+        Version version = version(table);
+        version.counter.incrementAndGet();
+        version.modifiedAt = System.currentTimeMillis();
+    }
+
+    public void bumpAll() {
+        versions.keySet().forEach(this::bump);
+    }
+
+    // Strong entity tag covering the given tables, e.g. "lq3x9k-12-40". Tomcat does not gzip strongly
+    // tagged responses; EtagCompressionFilter does, tagging the gzipped body "lq3x9k-12-40-gzip"
+    public String etag(String... tables) {
+        StringBuilder tag = new StringBuilder("\"").append(epoch);
+        for (String table : tables) {
+            tag.append('-').append(version(table).counter.get());
+        }
+        return tag.append('"').toString();
+    }
+
+    // HTTP dates have whole seconds, so the change time is exposed as the start of the following second.
+    // Until that second has passed another write could still map to the same date and a client holding
+    // it would get a stale 304, so no Last-Modified is given then (-1) and only the ETag validates.
+    public long lastModified(String... tables) {
+        long lastModified = 0;
+        for (String table : tables) {
+            lastModified = Math.max(lastModified, (version(table).modifiedAt / 1000 + 1) * 1000);
+        }
+        return lastModified <= System.currentTimeMillis() ? lastModified : -1;
+    }
+
+    private Version version(String table) {
+        Version version = versions.get(table);
+        if (version == null) {
+            throw new IllegalArgumentException("Untracked table: " + table);
+        }
+        return version;
+    }
+
+    private static class Version {
+        private final AtomicLong counter = new AtomicLong();
+        private volatile long modifiedAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,43 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.config.CacheConfig;
+import com.vehiclereg.dto.VehicleWithOwner;
+import com.vehiclereg.entity.Vehicle;
+import com.vehiclereg.repository.VehicleRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Optional;
+
+// Read side for vehicles, in read-only transactions like PersonService. Vehicles have no associations;
+// owners are joined by registration number in findAllWithOwners or loaded through PersonService.
+@Service
+@Transactional(readOnly = true)
+public class VehicleService {
+
+    private final VehicleRepository vehicleRepository;
+
+    public VehicleService(VehicleRepository vehicleRepository) {
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    public List<Vehicle> findAll() {
+        return vehicleRepository.findAll();
+    }
+
+    public Optional<Vehicle> findById(String regnum) {
+        return vehicleRepository.findById(regnum);
+    }
+
+    public List<Vehicle> findPage(String afterRegnum, int pageSize) {
+        return vehicleRepository.findByRegnumGreaterThanOrderByRegnumAsc(afterRegnum, Limit.of(pageSize));
+    }
+
+    // Vehicle listing and database overview, cached as copies (CachedCopies)
+    @Cacheable(CacheConfig.VEHICLE_LISTING)
+    public List<VehicleWithOwner> findAllWithOwners() {
+        return CachedCopies.vehiclesWithOwners(vehicleRepository.findAllWithOwners());
+    }
+}
@@ -0,0 +1,181 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.event.VehicleChangedEvent;
+import com.vehiclereg.repository.VehicleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Brand/color counts kept in memory: rebuilt from the database once, then maintained from
+// committed VehicleChangedEvents so the chart and stats endpoints never run GROUP BY scans.
+// A rebuild cannot tell which of the changes committed while its queries ran they already counted,
+// so when any arrive it runs again (they keep updating the current counts meanwhile). After
+// MAX_REBUILD_ATTEMPTS the queued deltas are applied to the last result instead; a change that
+// the queries had seen is then counted twice until the next rebuild. Locks rather than monitors,
+// since a rebuild runs queries and virtual threads must not be pinned while they wait (JDK 21).
+@Service
+public class VehicleStatisticsStore {
+
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final VehicleRepository vehicleRepository;
+    // Serializes rebuilds; taken before pendingLock, never while holding it
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private volatile Counts counts;
+    // Deltas committed while a rebuild is running its queries, guarded by pendingLock
+    private List<VehicleChangedEvent> pending;
+
+    public VehicleStatisticsStore(VehicleRepository vehicleRepository) {
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                pendingLock.lock();
+                try {
+                    pending = new ArrayList<>();
+                } finally {
+                    pendingLock.unlock();
+                }
+                Counts rebuilt;
+                try {
+                    rebuilt = load();
+                } catch (RuntimeException e) {
+                    pendingLock.lock();
+                    try {
+                        pending = null;
+                    } finally {
+                        pendingLock.unlock();
+                    }
+                    throw e;
+                }
+                pendingLock.lock();
+                try {
+                    if (pending.isEmpty() || attempt == MAX_REBUILD_ATTEMPTS) {
+                        pending.forEach(event -> apply(rebuilt, event));
+                        pending = null;
+                        counts = rebuilt;
+                        return;
+                    }
+                } finally {
+                    pendingLock.unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Counts load() {
+        Counts loaded = new Counts();
+        for (Object[] row : vehicleRepository.countVehiclesByBrand()) {
+            loaded.brands.put((String) row[0], (Long) row[1]);
+        }
+        for (Object[] row : vehicleRepository.countVehiclesByColor()) {
+            loaded.colors.put((String) row[0], (Long) row[1]);
+        }
+        loaded.total.set(vehicleRepository.count());
+        return loaded;
+    }
+
+    // Before the first rebuild has started there is nothing to update: it will count the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        pendingLock.lock();
+        try {
+            if (counts != null) {
+                apply(counts, event);
+            }
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void apply(Counts current, VehicleChangedEvent event) {
+        if (event.getOldBrand() != null) {
+            adjust(current.brands, event.getOldBrand(), -1);
+            adjust(current.colors, event.getOldColor(), -1);
+        }
+        if (event.getNewBrand() != null) {
+            adjust(current.brands, event.getNewBrand(), 1);
+            adjust(current.colors, event.getNewColor(), 1);
+        }
+        if (event.isInsert()) {
+            current.total.incrementAndGet();
+        } else if (event.isDelete()) {
+            current.total.decrementAndGet();
+        }
+    }
+
+    public Map<String, Long> getBrandCounts() {
+        return new HashMap<>(current().brands);
+    }
+
+    public Map<String, Long> getColorCounts() {
+        return new HashMap<>(current().colors);
+    }
+
+    public long getTotalVehicles() {
+        return current().total.get();
+    }
+
+    // Same [value, count] row shape as the GROUP BY queries, for the JSON stats endpoints
+    public List<Object[]> getBrandCountRows() {
+        return toRows(current().brands);
+    }
+
+    public List<Object[]> getColorCountRows() {
+        return toRows(current().colors);
+    }
+
+    // Requests may arrive before ApplicationReadyEvent while the context is still starting
+    private Counts current() {
+        Counts current = counts;
+        if (current == null) {
+            rebuildLock.lock();
+            try {
+                if (counts == null) {
+                    rebuild();
+                }
+                current = counts;
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private void adjust(ConcurrentHashMap<String, Long> map, String key, long delta) {
+        map.compute(key, (k, count) -> {
+            long updated = (count == null ? 0 : count) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+
+    private List<Object[]> toRows(Map<String, Long> map) {
+        List<Object[]> rows = new ArrayList<>(map.size());
+        map.forEach((key, count) -> rows.add(new Object[] {key, count}));
+        return rows;
+    }
+
+    private static class Counts {
+        final ConcurrentHashMap<String, Long> brands = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Long> colors = new ConcurrentHashMap<>();
+        final AtomicLong total = new AtomicLong();
+    }
+}
@@ -0,0 +1,46 @@
+-- Baseline schema, matching what hibernate.ddl-auto produced before Flyway took over.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate), so this
+-- script only runs on empty schemas. Kept to SQL that both MySQL 8 and H2 accept.
+
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    enabled BOOLEAN NOT NULL,
+    created_at DATETIME(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE persons (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    regnumber VARCHAR(6) NOT NULL,
+    height INT NOT NULL,
+    CONSTRAINT uk_persons_regnumber UNIQUE (regnumber)
+);
+
+CREATE TABLE vehicles (
+    regnum VARCHAR(6) NOT NULL PRIMARY KEY,
+    brand VARCHAR(20) NOT NULL,
+    color VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE phones (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    personid BIGINT NOT NULL,
+    number VARCHAR(20) NOT NULL,
+    CONSTRAINT fk_phones_person FOREIGN KEY (personid) REFERENCES persons (id)
+);
+
+CREATE TABLE contact_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    sent_at DATETIME(6) NOT NULL
+);
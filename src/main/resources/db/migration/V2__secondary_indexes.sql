@@ -0,0 +1,18 @@
+-- Secondary indexes for the repository queries that filter or sort on non-key columns.
+
+-- PhoneRepository.findByPersonid / deleteByPersonid / countPhonesByPersonId and the Person.phones collection.
+-- Includes number so the lookups are answered from the index; it also serves fk_phones_person
+CREATE INDEX idx_phones_personid ON phones (personid, number);
+
+-- VehicleRepository.findByBrandAndColor and findByBrand (leftmost prefix), GROUP BY brand statistics
+CREATE INDEX idx_vehicles_brand_color ON vehicles (brand, color);
+
+-- VehicleRepository.findByColor, GROUP BY color statistics
+CREATE INDEX idx_vehicles_color ON vehicles (color);
+
+-- ContactMessageRepository.findLatestSummaries / findSummariesBefore: inbox pages in (sent_at, id) order,
+-- read from the index without a sort
+CREATE INDEX idx_contact_messages_sent_at ON contact_messages (sent_at DESC, id DESC);
+
+-- ContactMessageRepository.findByEmailOrderBySentAtDesc: equality on email, rows already in sent_at order
+CREATE INDEX idx_contact_messages_email_sent_at ON contact_messages (email, sent_at);
@@ -0,0 +1,10 @@
+-- Heartbeat for replica lag checks (config/ReplicaSet). When read replicas are configured the
+-- application overwrites beat_millis on the primary every check interval and reads it back from
+-- each replica; how far a replica's copy is behind is its replication lag.
+
+CREATE TABLE replication_heartbeat (
+    id INT NOT NULL PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, 0);
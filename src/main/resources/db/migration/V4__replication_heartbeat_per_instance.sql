@@ -0,0 +1,10 @@
+-- One heartbeat row per application instance (config/ReplicaSet). Each instance writes only its own
+-- row and compares what a replica replayed with the beats it wrote itself, so lag and read-your-writes
+-- only ever compare timestamps from one clock; skew between instances no longer matters.
+
+DROP TABLE replication_heartbeat;
+
+CREATE TABLE replication_heartbeat (
+    instance_id VARCHAR(36) NOT NULL PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
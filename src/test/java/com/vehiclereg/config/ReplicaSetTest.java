@@ -0,0 +1,141 @@
+package com.vehiclereg.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two separate H2 databases stand in for the primary and a replica; replicate() copies the heartbeat
+// rows across, so each test decides exactly what the replica has replayed when the checker reads it.
+class ReplicaSetTest {
+
+    private static final String HEARTBEAT_TABLE = "CREATE TABLE replication_heartbeat ("
+        + "instance_id VARCHAR(36) NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)";
+    private static final Duration MAX_LAG = Duration.ofMillis(200);
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private String replicaUrl;
+    private ReplicaSet replicaSet;
+
+    @BeforeEach
+    void setUp() {
+        String name = UUID.randomUUID().toString();
+        primary = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:primary-" + name + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        replicaUrl = "jdbc:h2:mem:replica-" + name + ";DB_CLOSE_DELAY=-1";
+        replica = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, "sa", ""));
+        primary.execute(HEARTBEAT_TABLE);
+        replica.execute(HEARTBEAT_TABLE);
+        replicaSet = replicaSet(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaSet.close();
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void replicaIsNotUsedBeforeItHasReplayedABeat() {
+        assertThat(replicaSet.pick()).isNull();
+
+        replicaSet.check();
+        replicate();
+        assertThat(replicaSet.pick()).isNull();
+
+        replicaSet.check();
+        assertThat(replicaSet.pick()).isNotNull();
+        assertThat(replicaSet.status().get(0)).containsEntry("usable", true).containsEntry("lagMs", 0L);
+    }
+
+    @Test
+    void replicaThatStopsReplayingIsDroppedOnceBehindMaxLag() throws InterruptedException {
+        replicaSet.check();
+        replicate();
+        replicaSet.check();
+        assertThat(replicaSet.pick()).isNotNull();
+
+        Thread.sleep(MAX_LAG.toMillis() + 50);
+        replicaSet.check();
+        Thread.sleep(MAX_LAG.toMillis() + 50);
+        replicaSet.check();
+
+        assertThat(replicaSet.pick()).isNull();
+        assertThat((Long) replicaSet.status().get(0).get("lagMs")).isGreaterThan(MAX_LAG.toMillis());
+    }
+
+    @Test
+    void readYourWritesWaitsForABeatWrittenAfterTheWrite() throws InterruptedException {
+        replicaSet.check();
+        replicate();
+        replicaSet.check();
+        assertThat(replicaSet.pick()).isNotNull();
+
+        replicaSet.recordWrite();
+        assertThat(replicaSet.pick()).isNull();
+
+        Thread.sleep(5);
+        replicaSet.check();
+        replicate();
+        replicaSet.check();
+        assertThat(replicaSet.pick()).isNotNull();
+    }
+
+    // Another instance with a clock an hour ahead writes its own row; this instance only reads its own
+    @Test
+    void otherInstancesBeatsDoNotAffectLag() {
+        primary.update("INSERT INTO replication_heartbeat (instance_id, beat_millis) VALUES (?, ?)",
+            "other-instance", System.currentTimeMillis() + Duration.ofHours(1).toMillis());
+        replicaSet.check();
+        replicate();
+        replicaSet.check();
+
+        assertThat(replicaSet.pick()).isNotNull();
+        assertThat(replicaSet.status().get(0)).containsEntry("lagMs", 0L);
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM replication_heartbeat", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void replicaWithoutHeartbeatTableIsUnusable() {
+        replica.execute("DROP TABLE replication_heartbeat");
+        replicaSet.check();
+        replicaSet.check();
+
+        assertThat(replicaSet.pick()).isNull();
+        assertThat(replicaSet.status().get(0).get("error")).isNotNull();
+    }
+
+    @Test
+    void readYourWritesOffStillRequiresAReplayedBeat() {
+        replicaSet.close();
+        replicaSet = replicaSet(false);
+
+        replicaSet.check();
+        assertThat(replicaSet.pick()).isNull();
+        replicate();
+        replicaSet.check();
+        replicaSet.recordWrite();
+        assertThat(replicaSet.pick()).isNotNull();
+    }
+
+    private ReplicaSet replicaSet(boolean readYourWrites) {
+        return new ReplicaSet(primary.getDataSource(), List.of(replicaUrl), "sa", "", 2,
+            Duration.ofSeconds(1), MAX_LAG, readYourWrites, new SimpleMeterRegistry());
+    }
+
+    private void replicate() {
+        for (Map<String, Object> row : primary.queryForList("SELECT instance_id, beat_millis FROM replication_heartbeat")) {
+            replica.update("MERGE INTO replication_heartbeat (instance_id, beat_millis) KEY (instance_id) VALUES (?, ?)",
+                row.get("INSTANCE_ID"), row.get("BEAT_MILLIS"));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.vehiclereg.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Strongly tagged API responses are gzipped by EtagCompressionFilter, since Tomcat will not
+@SpringBootTest
+@AutoConfigureMockMvc
+class ApiCompressionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void gzipsTaggedListAndRevalidatesWithGzipTag() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/vehicles").with(httpBasic("user", "user123"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("-gzip\"");
+        assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+
+        JsonNode vehicles = objectMapper.readTree(gunzip(result.getResponse().getContentAsByteArray()));
+        assertThat(vehicles.isArray()).isTrue();
+        assertThat(vehicles.size()).isPositive();
+
+        mockMvc.perform(get("/api/vehicles").with(httpBasic("user", "user123"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void identityClientsGetPlainBodyAndPlainTag() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/vehicles").with(httpBasic("user", "user123")))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).doesNotContain("-gzip");
+        assertThat(objectMapper.readTree(result.getResponse().getContentAsByteArray()).isArray()).isTrue();
+
+        mockMvc.perform(get("/api/vehicles").with(httpBasic("user", "user123"))
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
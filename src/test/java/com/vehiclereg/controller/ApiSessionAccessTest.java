@@ -0,0 +1,76 @@
+package com.vehiclereg.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The chart and database pages call /api with the session of a form login; API clients send
+// credentials on every request and never get a session
+@SpringBootTest
+@AutoConfigureMockMvc
+class ApiSessionAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private MockHttpSession session;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        MvcResult login = mockMvc.perform(formLogin().user("admin").password("admin123"))
+            .andExpect(status().is3xxRedirection())
+            .andReturn();
+        session = (MockHttpSession) login.getRequest().getSession(false);
+        assertThat(session).isNotNull();
+    }
+
+    @Test
+    void formLoginSessionReachesStats() throws Exception {
+        mockMvc.perform(get("/api/stats/vehicles-by-brand").session(session))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void sessionWritesNeedCsrfToken() throws Exception {
+        mockMvc.perform(post("/api/persons").session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Session Writer\",\"regnumber\":\"CSR001\",\"height\":175}"))
+            .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/persons").session(session).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Session Writer\",\"regnumber\":\"CSR001\",\"height\":175}"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void basicAuthWritesNeedNoCsrfTokenAndCreateNoSession() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/persons").with(httpBasic("admin", "admin123"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Basic Writer\",\"regnumber\":\"CSR002\",\"height\":175}"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void withoutSessionOrCredentialsIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/stats/vehicles-by-brand"))
+            .andExpect(status().isUnauthorized());
+    }
+}
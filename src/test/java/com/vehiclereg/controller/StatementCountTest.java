@@ -0,0 +1,121 @@
+package com.vehiclereg.controller;
+
+import com.vehiclereg.entity.Person;
+import com.vehiclereg.entity.Phone;
+import com.vehiclereg.entity.Vehicle;
+import com.vehiclereg.repository.PersonRepository;
+import com.vehiclereg.repository.PhoneRepository;
+import com.vehiclereg.repository.VehicleRepository;
+import com.vehiclereg.service.CacheManagementService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SQL statements per page, counted with Hibernate statistics (hibernate.generate_statistics) after the
+// application and second-level caches are cleared, so every page pays for its own queries. The counts
+// must not grow with the number of persons, phones or vehicles rendered.
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementCountTest {
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CacheManagementService cacheManagementService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Enough persons for the largest API page, and for a per-row query to show in every count
+        for (int i = 0; i < 20; i++) {
+            createOwner(2);
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // The person with phones in one query, their vehicle in another
+    @Test
+    void personViewPage() throws Exception {
+        Person person = createOwner(3);
+
+        assertThat(statements(get("/crud/view/{id}", person.getId()))).isEqualTo(2);
+    }
+
+    // The vehicle, then its owner with phones
+    @Test
+    void vehicleViewPage() throws Exception {
+        Person person = createOwner(3);
+
+        assertThat(statements(get("/vehicles/view/{regnum}", person.getRegnumber()))).isEqualTo(2);
+    }
+
+    // Persons with phones, vehicles with owners and phones with persons; nothing once cached
+    @Test
+    void databasePage() throws Exception {
+        assertThat(statements(get("/database"))).isEqualTo(3);
+
+        statistics.clear();
+        mockMvc.perform(get("/database")).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    // The page's ids, then those persons with their phones, whatever the page size
+    @Test
+    void apiPersonsPage() throws Exception {
+        for (int limit : new int[] {1, 5, 20}) {
+            MockHttpServletRequestBuilder request = get("/api/persons")
+                .param("limit", String.valueOf(limit))
+                .with(user("user").roles("REGISTERED"));
+
+            assertThat(statements(request)).as("limit=%d", limit).isEqualTo(2);
+            mockMvc.perform(request).andExpect(jsonPath("$.length()").value(limit));
+        }
+    }
+
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        cacheManagementService.clearAll();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Person createOwner(int phones) {
+        String regnumber = String.format("STC%03d", sequence.incrementAndGet());
+        vehicleRepository.save(new Vehicle(regnumber, "Brand", "Color"));
+        Person person = personRepository.save(new Person("Owner " + regnumber, regnumber, 180));
+        for (int i = 0; i < phones; i++) {
+            phoneRepository.save(new Phone(person.getId(), "+3630" + regnumber + i));
+        }
+        return person;
+    }
+}
@@ -0,0 +1,132 @@
+package com.vehiclereg.repository;
+
+import com.vehiclereg.controller.MessageController;
+import com.vehiclereg.dto.MessageSummary;
+import com.vehiclereg.entity.ContactMessage;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.ui.ExtendedModelMap;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Inbox keyset paging over messages that share their sent_at, so page boundaries fall inside runs of
+// equal timestamps, where paging on sent_at alone would skip or repeat rows.
+@DataJpaTest
+class ContactMessageRepositoryTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private ContactMessageRepository contactMessageRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<Long> newestFirst;
+
+    @TestConfiguration
+    static class RecordStatements {
+
+        @Bean
+        HibernatePropertiesCustomizer recordStatements() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                statements.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    // 47 messages over 4 timestamps (12 each, 11 for the oldest); the timestamps cycle with the insert
+    // order, so ids do not follow sent_at
+    @BeforeEach
+    void setUp() {
+        List<ContactMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 47; i++) {
+            ContactMessage message = new ContactMessage("Sender " + i, "sender" + i + "@example.com", "Subject " + i, "Body " + i);
+            message.setSentAt(BASE.minusMinutes(i % 4));
+            messages.add(entityManager.persist(message));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statements.clear();
+
+        newestFirst = messages.stream()
+            .sorted(Comparator.comparing(ContactMessage::getSentAt).thenComparing(ContactMessage::getId).reversed())
+            .map(ContactMessage::getId)
+            .toList();
+    }
+
+    @Test
+    void repositoryPagesNeitherSkipNorRepeatTiedMessages() {
+        List<Long> seen = new ArrayList<>();
+        List<MessageSummary> page = contactMessageRepository.findLatestSummaries(Limit.of(10));
+        while (!page.isEmpty()) {
+            page.forEach(summary -> seen.add(summary.getId()));
+            MessageSummary last = page.get(page.size() - 1);
+            page = contactMessageRepository.findSummariesBefore(last.getSentAt(), last.getId(), Limit.of(10));
+        }
+
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    // The controller's own cursor (nextBefore, nextBeforeId), as the "Load more" button follows it
+    @Test
+    void controllerPagesFollowTheCursorToTheLastMessage() {
+        MessageController controller = new MessageController(contactMessageRepository);
+        List<Long> seen = new ArrayList<>();
+
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.messages(model);
+        assertThat(model.get("totalMessages")).isEqualTo(47L);
+        int pages = 1;
+        while (true) {
+            summaries(model).forEach(summary -> seen.add(summary.getId()));
+            if (!model.containsAttribute("nextBefore")) {
+                break;
+            }
+            LocalDateTime before = (LocalDateTime) model.get("nextBefore");
+            Long beforeId = (Long) model.get("nextBeforeId");
+            model = new ExtendedModelMap();
+            controller.page(before, beforeId, model);
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void summaryQueriesNeverSelectTheMessageBody() {
+        contactMessageRepository.findLatestSummaries(Limit.of(10));
+        contactMessageRepository.findSummariesBefore(BASE, newestFirst.get(5), Limit.of(10));
+
+        assertThat(statements).hasSize(2).allSatisfy(sql -> assertThat(sql)
+            .contains("sent_at")
+            .doesNotContainPattern("\\.message\\b"));
+
+        // Only the expand request reads it
+        statements.clear();
+        assertThat(contactMessageRepository.findMessageBodyById(newestFirst.get(0))).isPresent();
+        assertThat(statements).singleElement().asString().containsPattern("\\.message\\b");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<MessageSummary> summaries(ExtendedModelMap model) {
+        return (List<MessageSummary>) model.get("messages");
+    }
+}
@@ -0,0 +1,137 @@
+package com.vehiclereg.repository;
+
+import com.vehiclereg.entity.ContactMessage;
+import com.vehiclereg.entity.Person;
+import com.vehiclereg.entity.Phone;
+import com.vehiclereg.entity.Vehicle;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The schema comes from the Flyway migrations, so these check the indexes in V2__secondary_indexes.sql:
+// each finder's SQL, as Hibernate generated it, is run through H2's EXPLAIN and the plan must name the index.
+@DataJpaTest
+class SecondaryIndexPlanTest {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ContactMessageRepository contactMessageRepository;
+
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class RecordStatements {
+
+        @Bean
+        HibernatePropertiesCustomizer recordStatements() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                statements.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    private Person person;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 100; i++) {
+            person = entityManager.persist(new Person("Owner " + i, String.format("PH%03d", i), 180));
+            entityManager.persist(new Phone(person.getId(), "+3630" + i + "1"));
+            entityManager.persist(new Phone(person.getId(), "+3630" + i + "2"));
+        }
+        for (int i = 0; i < 200; i++) {
+            entityManager.persist(new Vehicle(String.format("IDX%03d", i), "Brand" + (i % 10), "Color" + (i % 7)));
+            entityManager.persist(new ContactMessage("Sender " + i, "sender" + (i % 20) + "@example.com", "Subject", "Message"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statements.clear();
+    }
+
+    @Test
+    void findByBrandUsesBrandColorIndex() {
+        vehicleRepository.findByBrand("Brand1");
+
+        assertThat(plan("Brand1")).contains("IDX_VEHICLES_BRAND_COLOR");
+    }
+
+    @Test
+    void findByBrandAndColorUsesBrandColorIndex() {
+        vehicleRepository.findByBrandAndColor("Brand1", "Color1");
+
+        assertThat(plan("Brand1", "Color1")).contains("IDX_VEHICLES_BRAND_COLOR").contains("COLOR = ?2");
+    }
+
+    @Test
+    void findByColorUsesColorIndex() {
+        vehicleRepository.findByColor("Color1");
+
+        assertThat(plan("Color1")).contains("IDX_VEHICLES_COLOR");
+    }
+
+    @Test
+    void findByEmailOrderBySentAtDescUsesEmailSentAtIndex() {
+        contactMessageRepository.findByEmailOrderBySentAtDesc("sender1@example.com");
+
+        assertThat(plan("sender1@example.com")).contains("IDX_CONTACT_MESSAGES_EMAIL_SENT_AT");
+    }
+
+    @Test
+    void findByPersonidUsesPersonidIndex() {
+        phoneRepository.findByPersonid(person.getId());
+
+        // Chosen over the foreign key's own index on personid, since it also covers number
+        assertThat(plan(person.getId())).contains("IDX_PHONES_PERSONID: PERSONID = ?1");
+    }
+
+    // First inbox page: read from the index in order, no sort
+    @Test
+    void findLatestSummariesReadsSentAtIndexInOrder() {
+        contactMessageRepository.findLatestSummaries(Limit.of(20));
+
+        assertThat(plan(0, 20)).contains("IDX_CONTACT_MESSAGES_SENT_AT */").contains("/* index sorted */");
+    }
+
+    // Later pages start from a range on the same index
+    @Test
+    void findSummariesBeforeSeeksSentAtIndexInOrder() {
+        LocalDateTime sentAt = LocalDateTime.now();
+        contactMessageRepository.findSummariesBefore(sentAt, 100L, Limit.of(20));
+
+        assertThat(plan(sentAt, sentAt, 100L, 0, 20))
+            .contains("IDX_CONTACT_MESSAGES_SENT_AT: SENT_AT <= ?1")
+            .contains("/* index sorted */");
+    }
+
+    // EXPLAIN of the one statement the finder ran, with its parameters bound
+    private String plan(Object... parameters) {
+        assertThat(statements).hasSize(1);
+        return jdbcTemplate.queryForObject("EXPLAIN " + statements.get(0), String.class, parameters);
+    }
+}
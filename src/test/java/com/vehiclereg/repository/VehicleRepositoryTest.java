@@ -0,0 +1,65 @@
+package com.vehiclereg.repository;
+
+import com.vehiclereg.dto.VehicleWithOwner;
+import com.vehiclereg.entity.Person;
+import com.vehiclereg.entity.Vehicle;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class VehicleRepositoryTest {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 20; i++) {
+            String regnum = String.format("TST%03d", i);
+            entityManager.persist(new Vehicle(regnum, "Brand" + (i % 3), "Color" + (i % 4)));
+            // every other vehicle has an owner
+            if (i % 2 == 0) {
+                entityManager.persist(new Person("Owner " + i, regnum, 170 + i));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    // The /vehicles listing renders every vehicle with its owner's name from one query
+    @Test
+    void findAllWithOwnersLoadsVehiclesAndOwnersInOneStatement() {
+        List<VehicleWithOwner> rows = vehicleRepository.findAllWithOwners();
+
+        assertThat(rows).hasSizeGreaterThanOrEqualTo(20);
+        long owners = rows.stream()
+            .filter(row -> row.getVehicle().getRegnum().startsWith("TST"))
+            .map(VehicleWithOwner::getOwner)
+            .filter(owner -> owner != null && owner.getName().startsWith("Owner"))
+            .count();
+        assertThat(owners).isEqualTo(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,231 @@
+package com.vehiclereg.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehiclereg.controller.ContactController;
+import com.vehiclereg.entity.ContactMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each test gets its own H2 database and journal directory; journals and checkpoints are written by
+// hand where a test needs the state a crash would have left behind.
+class ContactMessageQueueTest {
+
+    private static final String CONTACT_TABLE = "CREATE TABLE contact_messages (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+        + "name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, subject VARCHAR(255) NOT NULL, "
+        + "message CLOB NOT NULL, sent_at TIMESTAMP(6) NOT NULL)";
+
+    @TempDir
+    private Path dir;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final List<ContactMessageQueue> started = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:contact-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CONTACT_TABLE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        started.forEach(ContactMessageQueue::stop);
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void recoveryReplaysOnlyEntriesAfterTheCheckpoint() throws Exception {
+        writeJournal(line(1, "saved"), line(2, "unsaved-1"), line(3, "unsaved-2"));
+        Files.writeString(dir.resolve("contact-messages.checkpoint"), "1");
+
+        ContactMessageQueue queue = start(10000);
+        awaitRows(2);
+
+        assertThat(subjects()).containsExactly("unsaved-1", "unsaved-2");
+        assertThat(queue.offer(message("new"))).isTrue();
+        awaitRows(3);
+        stop(queue);
+
+        // Everything is checkpointed now, so a restart inserts nothing again
+        start(10000);
+        Thread.sleep(200);
+        assertThat(subjects()).containsExactly("unsaved-1", "unsaved-2", "new");
+    }
+
+    @Test
+    void tornLastLineIsDroppedAndNotAppendedTo() throws Exception {
+        writeJournal(line(1, "first"), line(2, "second"), "{\"seq\":3,\"name\":\"Torn");
+
+        ContactMessageQueue queue = start(10000);
+        awaitRows(2);
+        assertThat(queue.offer(message("after-crash"))).isTrue();
+        awaitRows(3);
+        stop(queue);
+
+        assertThat(subjects()).containsExactly("first", "second", "after-crash");
+        for (String line : Files.readAllLines(dir.resolve("contact-messages.journal"))) {
+            assertThat(new ObjectMapper().readTree(line).has("sentAt")).isTrue();
+        }
+    }
+
+    @Test
+    void unreadableCheckpointReplaysTheWholeJournal() throws Exception {
+        writeJournal(line(1, "first"), line(2, "second"));
+        Files.writeString(dir.resolve("contact-messages.checkpoint"), "");
+
+        start(10000);
+        awaitRows(2);
+
+        assertThat(subjects()).containsExactly("first", "second");
+    }
+
+    @Test
+    void failedStartReleasesTheDirectory() throws Exception {
+        // Not an IOException: the start fails with a DateTimeParseException
+        writeJournal(line(1, "first").replace("2024-01-01T12:00:00", "yesterday"));
+        assertThatThrownBy(() -> queue(10000).start()).isInstanceOf(RuntimeException.class);
+
+        // A lock left behind would make this start fail as "in use by another process"
+        writeJournal(line(1, "first"));
+        start(10000);
+        awaitRows(1);
+    }
+
+    // The writer truncates the journal whenever it catches up, while offers keep appending to it
+    @Test
+    void compactionWhileOffersArriveLosesAndRepeatsNothing() throws Exception {
+        ContactMessageQueue queue = start(10000);
+        int threads = 8;
+        int perThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        assertThat(queue.offer(message(thread + "-" + i))).isTrue();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        awaitRows(threads * perThread);
+        stop(queue);
+
+        start(10000);
+        Thread.sleep(200);
+        assertThat(rows()).isEqualTo(threads * perThread);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT subject) FROM contact_messages", Integer.class))
+            .isEqualTo(threads * perThread);
+    }
+
+    @Test
+    void fullQueueAnswers429() throws Exception {
+        // Without the table every batch fails and is retried, so nothing leaves the queue
+        jdbcTemplate.execute("DROP TABLE contact_messages");
+        // One message per batch, so at most one is outside the queue, in the writer's hands
+        ContactMessageQueue queue = start(2, 1);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ContactController(queue)).build();
+
+        int accepted = 0;
+        while (queue.offer(message("filler-" + accepted))) {
+            accepted++;
+        }
+        assertThat(accepted).isBetween(2, 3);
+
+        mockMvc.perform(post("/contact")
+                .param("name", "Flood")
+                .param("email", "flood@example.com")
+                .param("subject", "Subject")
+                .param("message", "Message"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private ContactMessageQueue queue(int capacity) {
+        return queue(capacity, 50);
+    }
+
+    private ContactMessageQueue queue(int capacity, int batchSize) {
+        return new ContactMessageQueue(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+            new ObjectMapper(), new SimpleMeterRegistry(), capacity, batchSize, Duration.ofMinutes(1), Duration.ofSeconds(1), dir, true);
+    }
+
+    private ContactMessageQueue start(int capacity) {
+        return start(capacity, 50);
+    }
+
+    private ContactMessageQueue start(int capacity, int batchSize) {
+        ContactMessageQueue queue = queue(capacity, batchSize);
+        queue.start();
+        started.add(queue);
+        return queue;
+    }
+
+    private void stop(ContactMessageQueue queue) {
+        queue.stop();
+        started.remove(queue);
+    }
+
+    private void writeJournal(String... lines) throws IOException {
+        Files.writeString(dir.resolve("contact-messages.journal"), String.join("\n", lines), StandardCharsets.UTF_8);
+    }
+
+    private static String line(long seq, String subject) {
+        return "{\"seq\":" + seq + ",\"name\":\"Sender\",\"email\":\"sender@example.com\",\"subject\":\"" + subject
+            + "\",\"message\":\"Message\",\"sentAt\":\"2024-01-01T12:00:00\"}";
+    }
+
+    private static ContactMessage message(String subject) {
+        return new ContactMessage("Sender", "sender@example.com", subject, "Message");
+    }
+
+    private List<String> subjects() {
+        return jdbcTemplate.queryForList("SELECT subject FROM contact_messages ORDER BY id", String.class);
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contact_messages", Integer.class);
+    }
+
+    private void awaitRows(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (rows() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(rows()).isEqualTo(expected);
+    }
+}
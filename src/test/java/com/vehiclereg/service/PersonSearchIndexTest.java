@@ -0,0 +1,228 @@
+package com.vehiclereg.service;
+
+import com.vehiclereg.dto.PersonSearchHit;
+import com.vehiclereg.dto.SearchResult;
+import com.vehiclereg.entity.Person;
+import com.vehiclereg.entity.Phone;
+import com.vehiclereg.event.PersonChangedEvent;
+import com.vehiclereg.event.PhoneChangedEvent;
+import com.vehiclereg.repository.PersonRepository;
+import com.vehiclereg.repository.PhoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The index reads the tables through mocked repositories; duringRebuild runs after the rebuild has
+// read the first person, where a change committed by another request would land.
+class PersonSearchIndexTest {
+
+    private final List<Person> persons = new ArrayList<>();
+    private final List<Phone> phones = new ArrayList<>();
+    private Runnable duringRebuild;
+    private PersonSearchIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        PersonRepository personRepository = mock(PersonRepository.class);
+        PhoneRepository phoneRepository = mock(PhoneRepository.class);
+        when(personRepository.streamAll()).thenAnswer(invocation -> new ArrayList<>(persons).stream());
+        when(phoneRepository.streamAll()).thenAnswer(invocation -> new ArrayList<>(phones).stream());
+
+        EntityStreamService entityStreamService = mock(EntityStreamService.class);
+        doAnswer(invocation -> {
+            Supplier<Stream<Object>> source = invocation.getArgument(0);
+            EntityStreamService.RowWriter<Object> writer = invocation.getArgument(1);
+            try (Stream<Object> rows = source.get()) {
+                for (Object row : (Iterable<Object>) rows::iterator) {
+                    writer.write(row);
+                    if (duringRebuild != null) {
+                        Runnable change = duringRebuild;
+                        duringRebuild = null;
+                        change.run();
+                    }
+                }
+            }
+            return null;
+        }).when(entityStreamService).forEach(any(), any());
+
+        index = new PersonSearchIndex(personRepository, phoneRepository, entityStreamService);
+    }
+
+    @Test
+    void tokenizeLowercasesWithRootLocaleAndSplitsOnNonAlphanumerics() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            // In Turkish "I".toLowerCase() is a dotless ı, which would never match a typed "i"
+            assertThat(PersonSearchIndex.tokenize("KIRA Anna-Maria O'Brien, ABC-123 Ünal"))
+                .containsExactly("kira", "anna", "maria", "o", "brien", "abc", "123", "ünal");
+        } finally {
+            Locale.setDefault(previous);
+        }
+        assertThat(PersonSearchIndex.tokenize(null)).isEmpty();
+        assertThat(PersonSearchIndex.tokenize(" -- ")).isEmpty();
+    }
+
+    @Test
+    void phoneQueriesAreMatchedAsOneDigitString() {
+        person(1, "Anna Kovacs", "ABC123");
+        phone(10, 1, "+36 20 123 4567");
+        person(2, "Peter 2020", "XYZ999");
+        index.rebuild();
+
+        assertThat(ids(index.search("+36 20 123-4567", false, 0, 10))).containsExactly(1L);
+        assertThat(ids(index.search("(36) 20/123.4567", false, 0, 10))).containsExactly(1L);
+        assertThat(index.search("+36 20 123-4567", false, 0, 10).getHits().get(0).getScore()).isEqualTo(4);
+        // Part of the number is a prefix or substring match on the digits
+        assertThat(index.search("3620", false, 0, 10).getHits().get(0).getScore()).isEqualTo(3);
+        assertThat(index.search("20 123", false, 0, 10).getHits().get(0).getScore()).isEqualTo(2);
+        // Letters make it a normal query: both tokens must match
+        assertThat(ids(index.search("peter 2020", false, 0, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void ranksExactOverPrefixOverSubstringOverFuzzy() {
+        person(1, "Anja", "R1");
+        person(2, "Joanna", "R2");
+        person(3, "Annabel", "R3");
+        person(4, "Anna", "R4");
+        index.rebuild();
+
+        SearchResult result = index.search("ANNA", true, 0, 10);
+
+        assertThat(ids(result)).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(result.getHits()).extracting(PersonSearchHit::getScore).containsExactly(4, 3, 2, 1);
+        assertThat(ids(index.search("anna", false, 0, 10))).containsExactly(4L, 3L, 2L);
+    }
+
+    @Test
+    void editDistanceIsOptimalStringAlignmentAndBounded() {
+        assertThat(PersonSearchIndex.editDistance("john", "john", 1)).isZero();
+        // An adjacent swap is one edit, where plain Levenshtein counts two
+        assertThat(PersonSearchIndex.editDistance("jhon", "john", 1)).isEqualTo(1);
+        // Optimal string alignment edits no substring twice: "ca" -> "abc" is 3, not Damerau's 2
+        assertThat(PersonSearchIndex.editDistance("ca", "abc", 3)).isEqualTo(3);
+        assertThat(PersonSearchIndex.editDistance("martin", "mortan", 2)).isEqualTo(2);
+        // Beyond the bound the result is max + 1, however far apart the strings are
+        assertThat(PersonSearchIndex.editDistance("martin", "mortan", 1)).isEqualTo(2);
+        assertThat(PersonSearchIndex.editDistance("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(PersonSearchIndex.editDistance("ab", "abcdef", 1)).isEqualTo(2);
+    }
+
+    @Test
+    void fuzzyAllowsOneEditBelowSevenCharactersAndTwoFromSeven() {
+        person(1, "Martin", "R1");
+        person(2, "Roberta", "R2");
+        person(3, "John", "R3");
+        phone(10, 3, "06201234567");
+        index.rebuild();
+
+        assertThat(ids(index.search("jhon", true, 0, 10))).containsExactly(3L);
+        assertThat(ids(index.search("mortin", true, 0, 10))).containsExactly(1L);
+        assertThat(ids(index.search("mortan", true, 0, 10))).isEmpty();
+        assertThat(ids(index.search("rubertu", true, 0, 10))).containsExactly(2L);
+        assertThat(ids(index.search("rubertu", false, 0, 10))).isEmpty();
+        // Numbers are never matched fuzzily
+        assertThat(ids(index.search("06201234568", true, 0, 10))).isEmpty();
+    }
+
+    @Test
+    void everyTokenMustMatchAndScoresAreSummed() {
+        person(1, "Anna Kovacs", "R1");
+        person(2, "Anna Nagy", "R2");
+        person(3, "Peter Nagy", "R3");
+        index.rebuild();
+
+        SearchResult result = index.search("nagy anna", false, 0, 10);
+
+        assertThat(ids(result)).containsExactly(2L);
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getHits().get(0).getScore()).isEqualTo(8);
+        assertThat(ids(index.search("anna r3", false, 0, 10))).isEmpty();
+    }
+
+    // Exact "lee" matches rank before the "leeds" prefix matches, each group by name
+    @Test
+    void pagesSplitTheRankingWithoutGapsOrRepeats() {
+        for (int i = 12; i >= 1; i--) {
+            person(100 + i, String.format("Leeds %02d", i), "P" + i);
+            person(i, String.format("Lee %02d", i), "E" + i);
+        }
+        index.rebuild();
+
+        List<String> names = new ArrayList<>();
+        for (int page = 0; page < 5; page++) {
+            SearchResult result = index.search("lee", false, page, 5);
+            assertThat(result.getTotal()).isEqualTo(24);
+            assertThat(result.getHits()).hasSizeLessThanOrEqualTo(5);
+            result.getHits().forEach(hit -> names.add(hit.getName()));
+            if (page == 2) {
+                assertThat(result.getHits()).extracting(PersonSearchHit::getName)
+                    .containsExactly("Lee 11", "Lee 12", "Leeds 01", "Leeds 02", "Leeds 03");
+            }
+            if (page == 4) {
+                assertThat(result.getHits()).extracting(PersonSearchHit::getName)
+                    .containsExactly("Leeds 09", "Leeds 10", "Leeds 11", "Leeds 12");
+            }
+        }
+        assertThat(names).hasSize(24).doesNotHaveDuplicates();
+        assertThat(names.subList(0, 12)).allMatch(name -> name.startsWith("Lee "));
+        assertThat(index.search("lee", false, 5, 5).getHits()).isEmpty();
+        assertThat(index.search("lee", false, 3, 8).getHits()).isEmpty();
+        assertThat(index.search("lee", false, 2, 8).getHits()).hasSize(8);
+    }
+
+    // Without the replay the new index would miss every change committed after its rows were read
+    @Test
+    void changesCommittedDuringRebuildAreReplayedOntoTheNewIndex() {
+        person(1, "Anna Kovacs", "R1");
+        person(2, "Bela Toth", "R2");
+        person(3, "Csaba Szabo", "R3");
+        phone(10, 2, "+36 30 111 2222");
+        index.rebuild();
+
+        duringRebuild = () -> {
+            index.onPersonChanged(new PersonChangedEvent(1L, "Anna Horvath", "R1", false));
+            index.onPersonChanged(new PersonChangedEvent(3L, null, null, true));
+            index.onPersonChanged(new PersonChangedEvent(4L, "Dora Kiss", "R4", false));
+            index.onPhoneChanged(new PhoneChangedEvent(10L, 2L, null, true));
+            index.onPhoneChanged(new PhoneChangedEvent(11L, 4L, "+36 70 555 6666", false));
+        };
+        index.rebuild();
+
+        assertThat(duringRebuild).isNull();
+        assertThat(ids(index.search("horvath", false, 0, 10))).containsExactly(1L);
+        assertThat(ids(index.search("kovacs", false, 0, 10))).isEmpty();
+        assertThat(ids(index.search("csaba", false, 0, 10))).isEmpty();
+        assertThat(ids(index.search("dora", false, 0, 10))).containsExactly(4L);
+        assertThat(ids(index.search("+36 30 111 2222", false, 0, 10))).isEmpty();
+        assertThat(ids(index.search("+36 70 555 6666", false, 0, 10))).containsExactly(4L);
+    }
+
+    private void person(long id, String name, String regnumber) {
+        Person person = new Person(name, regnumber, 180);
+        person.setId(id);
+        persons.add(person);
+    }
+
+    private void phone(long id, long personId, String number) {
+        Phone phone = new Phone(personId, number);
+        phone.setId(id);
+        phones.add(phone);
+    }
+
+    private static List<Long> ids(SearchResult result) {
+        return result.getHits().stream().map(PersonSearchHit::getId).toList();
+    }
+}